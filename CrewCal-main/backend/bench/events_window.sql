@@ -0,0 +1,62 @@
+-- 구간 조회 벤치: B-tree (start_at < to and end_at > from) vs GiST (span && tstzrange)
+--
+--   createdb crewcal_bench
+--   ./gradlew bootRun 으로 한 번 띄워 Flyway 를 적용한 뒤 (또는 같은 DB 에 flyway migrate)
+--   psql -d crewcal_bench -f bench/events_window.sql
+--
+-- 캘린더 50개에 5M 일정(약 6년치, 길이 30분~3시간)을 넣고, 오래된 캘린더의 최근 한 주 구간을 조회한다.
+-- 실행 계획과 Buffers, Execution Time 을 비교한다. 시드는 한 번만 넣으면 된다 (\set seed 0 으로 건너뜀)
+
+\set seed 1
+\set calendar 7
+
+\if :seed
+insert into users (email, display_name) values ('bench@example.com', 'bench') on conflict (email) do nothing;
+
+insert into calendars (name, created_by)
+select 'bench ' || g, (select id from users where email = 'bench@example.com')
+from generate_series(1, 50) g;
+
+-- 이벤트가 들어갈 월 파티션을 미리 만든다
+select ensure_event_partitions((now() - interval '6 years')::date, 12);
+
+insert into events (calendar_id, title, start_at, end_at, created_by, updated_by)
+select c.id,
+       'bench',
+       s.start_at,
+       s.start_at + make_interval(mins => 30 + (random() * 150)::int),
+       c.created_by,
+       c.created_by
+from (select id, created_by from calendars where name like 'bench %') c
+cross join lateral (
+  select now() - interval '6 years' + random() * interval '6 years' as start_at
+  from generate_series(1, 100000) where c.id > 0  -- c 를 참조해 캘린더마다 새로 뽑게 한다
+) s;
+
+vacuum analyze events;
+\endif
+
+select id as calendar_id from calendars where name = 'bench ' || :calendar \gset
+
+-- 1) 이전 쿼리 (V12 까지): start_at 으로만 범위가 걸린다
+explain (analyze, buffers, costs off)
+select e.id, e.start_at, e.end_at
+from events e
+where e.calendar_id = :calendar_id and e.deleted_at is null and e.rrule is null
+  and e.start_at < now() - interval '30 days' and e.start_at > now() - interval '37 days' - interval '366 days'
+  and e.end_at > now() - interval '37 days';
+
+-- 2) 지금 쿼리: span && 로 양쪽을 거르고 start_at 은 파티션 pruning 용
+explain (analyze, buffers, costs off)
+select e.id, e.start_at, e.end_at
+from events e
+where e.calendar_id = :calendar_id and e.deleted_at is null and e.rrule is null
+  and e.span && tstzrange(now() - interval '37 days', now() - interval '30 days', '[)')
+  and e.start_at < now() - interval '30 days' and e.start_at > now() - interval '37 days' - interval '366 days';
+
+-- 3) 파티션을 나누기 전 형태 (start_at 하한 없음): 모든 파티션을 읽는 경우의 비교용
+explain (analyze, buffers, costs off)
+select e.id, e.start_at, e.end_at
+from events e
+where e.calendar_id = :calendar_id and e.deleted_at is null and e.rrule is null
+  and e.span && tstzrange(now() - interval '37 days', now() - interval '30 days', '[)');
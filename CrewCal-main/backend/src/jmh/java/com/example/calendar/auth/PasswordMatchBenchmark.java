@@ -0,0 +1,35 @@
+package com.example.calendar.auth;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 로그인 한 번에 드는 비용: PasswordHasher 풀에 넘겨 BCrypt 로 비교하고 결과를 받을 때까지.
+// strength 기본값은 app.auth.bcrypt-strength 의 기본값이다. 운영 설정이 다르면 -p strength=12 처럼 넘긴다
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordMatchBenchmark {
+
+    @Param({"" + PasswordHasher.DEFAULT_STRENGTH})
+    public int strength;
+
+    private PasswordHasher hasher;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        hasher = new PasswordHasher(strength, 1, 64);
+        hash = hasher.encode("password").join();
+    }
+
+    @TearDown
+    public void tearDown() {
+        hasher.stop();
+    }
+
+    @Benchmark
+    public PasswordHasher.Verification verify() {
+        return hasher.verify("password", hash).join();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.calendar.bench;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+// DB 없이 벤치마크를 돌리기 위한 in-process DataSource: 쿼리(SQL)별로 미리 만들어 둔 rows를 돌려준다
+public class StubDataSource implements DataSource {
+
+    private final Function<String, List<Map<String, Object>>> rowsFor;
+
+    public StubDataSource(List<Map<String, Object>> rows) { this(sql -> rows); }
+
+    public StubDataSource(Function<String, List<Map<String, Object>>> rowsFor) { this.rowsFor = rowsFor; }
+
+    @Override
+    public Connection getConnection() {
+        return proxy(Connection.class, (m, args) -> switch (m.getName()) {
+            case "prepareStatement" -> preparedStatement(rowsFor.apply((String) args[0]));
+            case "getAutoCommit", "isValid" -> true;
+            default -> null;
+        });
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) { return getConnection(); }
+
+    private PreparedStatement preparedStatement(List<Map<String, Object>> rows) {
+        return proxy(PreparedStatement.class, (m, args) -> switch (m.getName()) {
+            case "executeQuery" -> resultSet(rows);
+            default -> null;
+        });
+    }
+
+    private ResultSet resultSet(List<Map<String, Object>> rows) {
+        int[] cursor = {-1};
+        boolean[] lastNull = {false};
+        return proxy(ResultSet.class, (m, args) -> {
+            switch (m.getName()) {
+                case "next":
+                    return ++cursor[0] < rows.size();
+                case "getRow":
+                    return cursor[0] + 1;
+                case "wasNull":
+                    return lastNull[0];
+                case "getLong", "getInt", "getString", "getBoolean", "getObject":
+                    Object v = args[0] instanceof String col ? rows.get(cursor[0]).get(col) : null;
+                    lastNull[0] = v == null;
+                    return v;
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private interface Handler {
+        Object handle(Method m, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, m, args) -> {
+            Object result = handler.handle(m, args);
+            if (result == null && m.getReturnType().isPrimitive()) return defaultValue(m.getReturnType());
+            return result;
+        });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == long.class) return 0L;
+        if (type == int.class) return 0;
+        if (type == double.class) return 0d;
+        if (type == float.class) return 0f;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return (char) 0;
+        return null;
+    }
+
+    @Override public PrintWriter getLogWriter() { return null; }
+    @Override public void setLogWriter(PrintWriter out) {}
+    @Override public void setLoginTimeout(int seconds) {}
+    @Override public int getLoginTimeout() { return 0; }
+    @Override public Logger getParentLogger() throws SQLFeatureNotSupportedException { throw new SQLFeatureNotSupportedException(); }
+    @Override public <T> T unwrap(Class<T> iface) { return null; }
+    @Override public boolean isWrapperFor(Class<?> iface) { return false; }
+}
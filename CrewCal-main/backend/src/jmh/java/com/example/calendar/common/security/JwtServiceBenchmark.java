@@ -0,0 +1,49 @@
+package com.example.calendar.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "RbrZwwlt5x2A84VzoqVP8ncSq4b9i6zgfQCtNwZh463CF2nWGic+qal77/PGKXXVGBeFG6RSsI+NHh6s8MquRw==";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(SECRET, "crewcal", 60, 10_000);
+        token = jwtService.issue(1L, "owner@example.com");
+        jwtService.authenticate(token);
+    }
+
+    @Benchmark
+    public String issue() {
+        return jwtService.issue(1L, "owner@example.com");
+    }
+
+    // 예전 방식: 요청마다 parser를 새로 만든다
+    @Benchmark
+    public Claims parseWithNewParser() {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    @Benchmark
+    public Claims parseCold() {
+        return jwtService.parse(token);
+    }
+
+    @Benchmark
+    public UserPrincipal authenticateCached() {
+        return jwtService.authenticate(token);
+    }
+}
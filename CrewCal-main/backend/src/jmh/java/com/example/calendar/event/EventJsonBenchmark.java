@@ -0,0 +1,39 @@
+package com.example.calendar.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class EventJsonBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<EventDtos.EventItem> items;
+
+    @Setup
+    public void setup() {
+        OffsetDateTime base = OffsetDateTime.parse("2026-01-01T09:00:00+09:00");
+        items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new EventDtos.EventItem(
+                    i + 1, (i % 3) + 1, "Shift " + i,
+                    base.plusHours(i).toString(), base.plusHours(i + 1).toString(),
+                    false, i % 2 == 0 ? "note " + i : null, i % 4 == 0 ? 10 : null,
+                    null, null, null
+            ));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.calendar.event;
+
+import com.example.calendar.bench.StubDataSource;
+import com.example.calendar.calendar.CalendarPermissionCache;
+import com.example.calendar.calendar.CalendarRepository;
+import com.example.calendar.common.security.UserPrincipal;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// EventService.list 의 row mapping + DTO 생성 비용 (DB 왕복은 제외)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class EventListBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int rows;
+
+    @Param({"EDITOR", "FREEBUSY"})
+    public String role;
+
+    // 매일 반복되는 시리즈 수 (1년 구간이면 시리즈당 365 회차)
+    @Param({"0", "20"})
+    public int series;
+
+    private EventService eventService;
+    private final UserPrincipal principal = new UserPrincipal(1L, "owner@example.com");
+    private final List<Long> calendarIds = List.of(1L, 2L, 3L);
+
+    @Setup
+    public void setup() {
+        OffsetDateTime base = OffsetDateTime.parse("2026-01-01T09:00:00+09:00");
+        List<Map<String, Object>> data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", (long) i + 1);
+            row.put("calendar_id", (long) (i % 3) + 1);
+            row.put("title", "Shift " + i);
+            row.put("start_at", base.plusHours(i));
+            row.put("end_at", base.plusHours(i + 1));
+            row.put("all_day", false);
+            row.put("note", i % 2 == 0 ? "note " + i : null);
+            row.put("role", role);
+            row.put("minutes_before", i % 4 == 0 ? 10 : null);
+            data.add(row);
+        }
+        List<Map<String, Object>> seriesData = new ArrayList<>(series);
+        for (int i = 0; i < series; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", (long) rows + i + 1);
+            row.put("calendar_id", (long) (i % 3) + 1);
+            row.put("title", "Rotation " + i);
+            row.put("start_at", base.plusMinutes(i * 30L));
+            row.put("end_at", base.plusMinutes(i * 30L + 480));
+            row.put("all_day", false);
+            row.put("rrule", "FREQ=DAILY");
+            row.put("role", role);
+            seriesData.add(row);
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(new StubDataSource(
+                sql -> sql.contains("rrule is not null") ? seriesData : data));
+        eventService = new EventService(
+                new EventRepository(jdbc),
+                new ReminderRepository(jdbc),
+                new CalendarRepository(jdbc, new CalendarPermissionCache(1000, 60)),
+                event -> {}
+        );
+    }
+
+    @Benchmark
+    public List<EventDtos.EventItem> list() {
+        return eventService.list(principal, calendarIds, "2026-01-01T00:00:00+09:00", "2027-01-01T00:00:00+09:00");
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.calendar.event;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.OffsetDateTime;
+
+// 요청의 from/to/startAt 을 읽는 EventService.parseIso
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class ParseIsoBenchmark {
+
+    @Param({"2026-10-01T09:00:00+09:00", "2026-10-01T00:00:00Z", "2026-10-01T09:00:00.123+09:00"})
+    public String iso;
+
+    @Benchmark
+    public OffsetDateTime parse() {
+        return EventService.parseIso(iso);
+    }
+}
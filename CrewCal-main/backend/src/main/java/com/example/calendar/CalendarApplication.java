@@ -2,10 +2,25 @@ package com.example.calendar;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Map;
 
 @SpringBootApplication
+@EnableScheduling
 public class CalendarApplication {
     public static void main(String[] args) {
-        SpringApplication.run(CalendarApplication.class, args);
+        SpringApplication app = new SpringApplication(CalendarApplication.class);
+        // application.properties 에 값이 없을 때의 기본값 (.ics 가져오기 업로드는 디스크 임시 파일로 받는다)
+        app.setDefaultProperties(Map.of(
+                "spring.servlet.multipart.max-file-size", "100MB",
+                "spring.servlet.multipart.max-request-size", "100MB",
+                // /actuator/prometheus 로 scrape. route 별 지연 히스토그램과 커넥션 대기 시간 분포를 켠다
+                "management.endpoints.web.exposure.include", "health,prometheus",
+                "management.metrics.tags.application", "crewcal",
+                "management.metrics.distribution.percentiles-histogram.http.server.requests", "true",
+                "management.metrics.distribution.percentiles-histogram.hikaricp.connections.acquire", "true"
+        ));
+        app.run(args);
     }
 }
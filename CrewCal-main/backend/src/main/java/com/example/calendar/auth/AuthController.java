@@ -7,65 +7,70 @@ import com.example.calendar.common.security.JwtService;
 import com.example.calendar.common.security.UserPrincipal;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
     private final JwtService jwtService;
-    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordHasher;
 
-    public AuthController(UserRepository userRepository, JwtService jwtService) {
+    public AuthController(UserRepository userRepository, UserProfileCache userProfileCache, JwtService jwtService,
+                          PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
+        this.userProfileCache = userProfileCache;
         this.jwtService = jwtService;
+        this.passwordHasher = passwordHasher;
     }
 
+    // 해시 계산은 bcrypt 풀에서 하고, 요청 스레드는 기다리지 않고 돌려준다 (async 응답)
     @PostMapping("/signup")
-    public AuthResponse signup(@Valid @RequestBody SignupRequest req) {
-        if (userRepository.existsByEmail(req.email())) {
-            throw new ApiException(HttpStatus.CONFLICT, "Email already exists");
-        }
-        String hash = encoder.encode(req.password());
-        userRepository.createEmailUser(req.email(), hash, req.displayName());
-        long userId = userRepository.findIdByEmail(req.email());
-        String token = jwtService.issue(userId, req.email());
-        return new AuthResponse(token, req.email(), userId);
+    public CompletableFuture<AuthResponse> signup(@Valid @RequestBody SignupRequest req) {
+        return passwordHasher.encode(req.password()).thenApply(hash -> {
+            Long userId = userRepository.createEmailUser(req.email(), hash, req.displayName());
+            if (userId == null) throw new ApiException(HttpStatus.CONFLICT, "Email already exists");
+            String token = jwtService.issue(userId, req.email());
+            return new AuthResponse(token, req.email(), userId);
+        });
     }
 
     @PostMapping("/login")
-    public AuthResponse login(@Valid @RequestBody LoginRequest req) {
-        if (!userRepository.existsByEmail(req.email())) {
+    public CompletableFuture<AuthResponse> login(@Valid @RequestBody LoginRequest req) {
+        var credentials = userRepository.findCredentials(req.email());
+        if (credentials == null) {
             throw new ApiException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
         }
 
         // 전환 정책: 이미 GOOGLE로 전환된 이메일은 이메일 로그인 불가
-        String provider = userRepository.findProvider(req.email());
-        if ("GOOGLE".equalsIgnoreCase(provider)) {
-            throw new ApiException(HttpStatus.UNAUTHORIZED, "This account uses Google login. Please sign in with Google.");
-        }
-
-        String hash = userRepository.findPasswordHash(req.email());
-        if (hash == null) {
-            // password_hash가 null이면 전환(또는 비번 로그인 비활성화) 상태이므로 이메일 로그인 불가
+        // password_hash가 null이면 전환(또는 비번 로그인 비활성화) 상태이므로 이메일 로그인 불가
+        if ("GOOGLE".equalsIgnoreCase(credentials.provider()) || credentials.passwordHash() == null) {
             throw new ApiException(HttpStatus.UNAUTHORIZED, "This account uses Google login. Please sign in with Google.");
         }
 
-        if (!encoder.matches(req.password(), hash)) {
-            throw new ApiException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
-        }
-
-        long userId = userRepository.findIdByEmail(req.email());
-        String token = jwtService.issue(userId, req.email());
-        return new AuthResponse(token, req.email(), userId);
+        String hash = credentials.passwordHash();
+        return passwordHasher.verify(req.password(), hash).thenApply(result -> {
+            if (!result.matches()) {
+                throw new ApiException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
+            }
+            // 설정된 cost 가 올라갔으면 로그인하는 김에 새 해시로 바꿔 둔다
+            if (result.upgradedHash() != null) {
+                userRepository.updatePasswordHash(credentials.id(), hash, result.upgradedHash());
+            }
+            String token = jwtService.issue(credentials.id(), req.email());
+            return new AuthResponse(token, req.email(), credentials.id());
+        });
     }
 
     @GetMapping("/me")
     public MeResponse me() {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        String name = userRepository.findDisplayName(p.email());
-        return new MeResponse(p.userId(), p.email(), name);
+        var profile = userProfileCache.get(p.userId());
+        if (profile == null) throw new ApiException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
+        return new MeResponse(p.userId(), p.email(), profile.displayName());
     }
 }
@@ -0,0 +1,80 @@
+package com.example.calendar.auth;
+
+import com.example.calendar.common.exception.ApiException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// BCrypt 는 요청 스레드가 아니라 전용 풀에서 돌린다. 풀과 대기열이 모두 차면 기다리지 않고 바로 503.
+// 로그인이 몰려도 CPU 를 쓰는 스레드 수가 고정되어 나머지 API 는 응답을 유지한다
+@Component
+public class PasswordHasher {
+
+    public record Verification(boolean matches, String upgradedHash) {}
+
+    // app.auth.bcrypt-strength 기본값 (PasswordMatchBenchmark 도 이 값으로 잰다)
+    public static final int DEFAULT_STRENGTH = 10;
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor pool;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public PasswordHasher(@Value("${app.auth.bcrypt-strength:" + DEFAULT_STRENGTH + "}") int strength,
+                          @Value("${app.auth.bcrypt-threads:0}") int threads,
+                          @Value("${app.auth.bcrypt-queue:64}") int queueCapacity) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        // 기본은 코어의 절반 (나머지 요청 처리용으로 남겨 둔다)
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger seq = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // 설정된 cost 가 저장된 해시보다 높으면 새 해시도 같이 만들어 돌려준다 (로그인 성공 시에만)
+    public CompletableFuture<Verification> verify(String raw, String hash) {
+        return submit(() -> {
+            if (!encoder.matches(raw, hash)) return new Verification(false, null);
+            return new Verification(true, encoder.upgradeEncoding(hash) ? encoder.encode(raw) : null);
+        });
+    }
+
+    public CompletableFuture<String> encode(String raw) {
+        return submit(() -> encoder.encode(raw));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, pool);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-in attempts. Please try again shortly.");
+        }
+    }
+
+    public int queueDepth() { return pool.getQueue().size(); }
+    public int activeCount() { return pool.getActiveCount(); }
+    public long completedCount() { return pool.getCompletedTaskCount(); }
+    public long rejectedCount() { return rejected.get(); }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdown();
+    }
+}
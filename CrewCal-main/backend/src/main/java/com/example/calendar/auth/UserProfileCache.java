@@ -0,0 +1,44 @@
+package com.example.calendar.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class UserProfileCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, UserRepository.UserProfile> cache;
+
+    public UserProfileCache(UserRepository userRepository,
+                            @Value("${app.cache.user-profiles.max-size:50000}") long maxSize,
+                            @Value("${app.cache.user-profiles.ttl-seconds:600}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    // 없는 사용자면 null (캐시하지 않음)
+    public UserRepository.UserProfile get(long userId) {
+        return cache.get(userId, userRepository::findProfile);
+    }
+
+    public void invalidate(long userId) {
+        cache.invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() { return cache.estimatedSize(); }
+
+    public CacheStats stats() { return cache.stats(); }
+}
@@ -3,38 +3,53 @@ package com.example.calendar.auth;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public class UserRepository {
     private final JdbcTemplate jdbc;
 
     public UserRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
 
-    public boolean existsByEmail(String email) {
-        Integer n = jdbc.queryForObject("select count(*) from users where email = ?", Integer.class, email);
-        return n != null && n > 0;
-    }
+    public record UserProfile(long id, String email, String displayName) {}
 
-    public long findIdByEmail(String email) {
-        Long id = jdbc.queryForObject("select id from users where email = ?", Long.class, email);
-        return id == null ? -1 : id;
-    }
+    public record Credentials(long id, String provider, String passwordHash) {}
 
-    public String findProvider(String email) {
-        return jdbc.queryForObject("select provider from users where email = ?", String.class, email);
+    // 로그인에 필요한 값을 한 번에. 없는 이메일이면 null
+    public Credentials findCredentials(String email) {
+        return jdbc.query(
+                "select id, provider, password_hash from users where email = ?",
+                rs -> rs.next() ? new Credentials(rs.getLong("id"), rs.getString("provider"), rs.getString("password_hash")) : null,
+                email
+        );
     }
 
+    // 다른 요청이 그 사이 비밀번호를 바꿨으면 덮어쓰지 않는다
+    public void updatePasswordHash(long userId, String oldHash, String newHash) {
+        jdbc.update("update users set password_hash=? where id=? and password_hash=?", newHash, userId, oldHash);
+    }
 
-    public String findPasswordHash(String email) {
-        return jdbc.queryForObject("select password_hash from users where email = ?", String.class, email);
+    public UserProfile findProfile(long userId) {
+        return jdbc.query(
+                "select id, email, display_name from users where id = ?",
+                rs -> rs.next() ? new UserProfile(rs.getLong("id"), rs.getString("email"), rs.getString("display_name")) : null,
+                userId
+        );
     }
 
     public String findDisplayName(String email) {
         return jdbc.queryForObject("select display_name from users where email = ?", String.class, email);
     }
 
-    public void createEmailUser(String email, String passwordHash, String displayName) {
-        jdbc.update("insert into users (email, password_hash, display_name, provider) values (?,?,?, 'EMAIL')",
-                email, passwordHash, displayName);
+    // 이미 있는 이메일이면 null (존재 확인과 insert 를 한 문장으로)
+    public Long createEmailUser(String email, String passwordHash, String displayName) {
+        List<Long> ids = jdbc.queryForList(
+                "insert into users (email, password_hash, display_name, provider) values (?,?,?, 'EMAIL') " +
+                "on conflict (email) do nothing returning id",
+                Long.class,
+                email, passwordHash, displayName
+        );
+        return ids.isEmpty() ? null : ids.get(0);
     }
 
     public long upsertGoogleUser(String email, String displayName, String providerId) {
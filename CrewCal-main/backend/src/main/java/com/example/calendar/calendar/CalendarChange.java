@@ -0,0 +1,21 @@
+package com.example.calendar.calendar;
+
+// 캘린더 내용이 바뀌었음을 알리는 애플리케이션 이벤트 (커밋 후 CalendarChangeHub 가 구독자에게 전달)
+public record CalendarChange(
+        long calendarId,
+        String type,   // EVENT / MEMBER / CALENDAR
+        long id,       // EVENT: event id, MEMBER: user id, CALENDAR: calendar id
+        String op      // CREATED / UPDATED / DELETED
+) {
+    public static CalendarChange event(long calendarId, long eventId, String op) {
+        return new CalendarChange(calendarId, "EVENT", eventId, op);
+    }
+
+    public static CalendarChange member(long calendarId, long userId, String op) {
+        return new CalendarChange(calendarId, "MEMBER", userId, op);
+    }
+
+    public static CalendarChange calendar(long calendarId, String op) {
+        return new CalendarChange(calendarId, "CALENDAR", calendarId, op);
+    }
+}
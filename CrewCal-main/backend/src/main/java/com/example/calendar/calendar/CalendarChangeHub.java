@@ -0,0 +1,145 @@
+package com.example.calendar.calendar;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 인스턴스 내 SSE 구독자 레지스트리. 구독자마다 virtual thread 하나가 큐를 기다리며 parking 된다.
+@Component
+public class CalendarChangeHub {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarChangeHub.class);
+
+    private static final int QUEUE_CAPACITY = 256;
+    private static final long HEARTBEAT_SECONDS = 25;
+
+    private final Map<Long, Set<Subscriber>> byCalendar = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> byUser = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final long timeoutMillis;
+
+    public CalendarChangeHub(@Value("${app.sse.timeout-minutes:30}") long timeoutMinutes) {
+        this.timeoutMillis = Duration.ofMinutes(timeoutMinutes).toMillis();
+    }
+
+    public SseEmitter subscribe(long userId, List<Long> calendarIds) {
+        var emitter = new SseEmitter(timeoutMillis);
+        var subscriber = new Subscriber(userId, emitter);
+
+        byUser.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        calendarIds.forEach(calendarId -> attach(subscriber, calendarId));
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscriber.thread = Thread.ofVirtual().name("sse-" + userId).start(subscriber);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(CalendarChange change) {
+        var notification = new CalendarDtos.ChangeNotification(
+                change.calendarId(), change.type(), change.id(), change.op(), version.incrementAndGet());
+
+        // 새 멤버는 알림을 받을 수 있게 먼저 붙이고, 빠진 멤버/삭제된 캘린더는 알림을 보낸 뒤 떼어낸다
+        boolean memberChange = "MEMBER".equals(change.type());
+        if (memberChange && "CREATED".equals(change.op())) {
+            byUser.getOrDefault(change.id(), Set.of()).forEach(s -> attach(s, change.calendarId()));
+        }
+
+        byCalendar.getOrDefault(change.calendarId(), Set.of()).forEach(s -> s.offer(notification));
+
+        if (memberChange && "DELETED".equals(change.op())) {
+            byUser.getOrDefault(change.id(), Set.of()).forEach(s -> detach(s, change.calendarId()));
+        }
+        if ("CALENDAR".equals(change.type()) && "DELETED".equals(change.op())) {
+            byCalendar.remove(change.calendarId());
+        }
+    }
+
+    public int subscriberCount() {
+        return byUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void attach(Subscriber s, long calendarId) {
+        s.calendarIds.add(calendarId);
+        byCalendar.computeIfAbsent(calendarId, k -> ConcurrentHashMap.newKeySet()).add(s);
+    }
+
+    private void detach(Subscriber s, long calendarId) {
+        s.calendarIds.remove(calendarId);
+        byCalendar.computeIfPresent(calendarId, (k, set) -> {
+            set.remove(s);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private final class Subscriber implements Runnable {
+        private final long userId;
+        private final SseEmitter emitter;
+        private final Set<Long> calendarIds = ConcurrentHashMap.newKeySet();
+        private final BlockingQueue<CalendarDtos.ChangeNotification> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private volatile boolean closed;
+        private volatile Thread thread;
+
+        private Subscriber(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        // 큐가 가득 찰 만큼 느린 클라이언트는 끊는다 (재연결 후 /events/changes 로 따라잡는다)
+        void offer(CalendarDtos.ChangeNotification n) {
+            if (!queue.offer(n)) {
+                log.debug("SSE subscriber of user {} is too slow, disconnecting", userId);
+                close();
+                emitter.complete();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    var n = queue.poll(HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                    if (n == null) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        emitter.send(SseEmitter.event().id(String.valueOf(n.version())).name("change").data(n));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            calendarIds.forEach(calendarId -> detach(this, calendarId));
+            byUser.computeIfPresent(userId, (k, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            Thread t = thread;
+            if (t != null && t != Thread.currentThread()) t.interrupt();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.calendar.calendar;
 
 import com.example.calendar.calendar.CalendarDtos.*;
+import com.example.calendar.common.metrics.StatementBudget;
 import com.example.calendar.common.security.AuthUtil;
 import com.example.calendar.common.security.UserPrincipal;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -12,70 +16,92 @@ import java.util.Map;
 @RestController
 public class CalendarController {
     private final CalendarService calendarService;
+    private final CalendarChangeHub changeHub;
 
-    public CalendarController(CalendarService calendarService) {
+    public CalendarController(CalendarService calendarService, CalendarChangeHub changeHub) {
         this.calendarService = calendarService;
+        this.changeHub = changeHub;
     }
 
+    // 캘린더/멤버 변경이 없으면 (version 지문이 같으면) 목록을 다시 읽지 않고 304
+    @StatementBudget(2)
     @GetMapping("/calendars")
-    public List<CalendarSummary> list() {
+    public List<CalendarSummary> list(ServletWebRequest request) {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        return calendarService.listForUser(p.email());
+        request.getResponse().setHeader("Cache-Control", "private, no-cache");
+        if (request.checkNotModified(calendarService.versionTag(p.userId()))) return null;
+        return calendarService.listForUser(p.userId());
     }
 
+    @GetMapping(value = "/calendars/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        List<Long> calendarIds = calendarService.listForUser(p.userId()).stream().map(CalendarSummary::id).toList();
+        return changeHub.subscribe(p.userId(), calendarIds);
+    }
+
+    @StatementBudget(2)
     @PostMapping("/calendars")
     public Map<String, Object> create(@Valid @RequestBody CreateCalendarRequest req) {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        long id = calendarService.create(p.email(), req.name(), req.color());
+        long id = calendarService.create(p.userId(), req.name(), req.color());
         return Map.of("id", id);
     }
 
+    @StatementBudget(2)
     @PatchMapping("/calendars/{calendarId}")
     public void update(@PathVariable long calendarId, @RequestBody UpdateCalendarRequest req) {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        calendarService.update(p.email(), calendarId, req.name(), req.color());
+        calendarService.update(p.userId(), calendarId, req.name(), req.color());
     }
 
+    @StatementBudget(2)
     @DeleteMapping("/calendars/{calendarId}")
     public void delete(@PathVariable long calendarId) {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        calendarService.delete(p.email(), calendarId);
+        calendarService.delete(p.userId(), calendarId);
     }
 
+    @StatementBudget(2)
     @GetMapping("/calendars/{calendarId}/members")
     public List<MemberSummary> members(@PathVariable long calendarId) {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        return calendarService.listMembers(p.email(), calendarId);
+        return calendarService.listMembers(p.userId(), calendarId);
     }
 
+    @StatementBudget(2)
     @PatchMapping("/calendars/{calendarId}/members/{userId}")
     public void changeRole(@PathVariable long calendarId, @PathVariable long userId, @RequestBody Map<String, String> body) {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        calendarService.changeRole(p.email(), calendarId, userId, body.get("role"));
+        calendarService.changeRole(p.userId(), calendarId, userId, body.get("role"));
     }
 
+    @StatementBudget(2)
     @DeleteMapping("/calendars/{calendarId}/members/{userId}")
     public void removeMember(@PathVariable long calendarId, @PathVariable long userId) {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        calendarService.removeMember(p.email(), calendarId, userId);
+        calendarService.removeMember(p.userId(), calendarId, userId);
     }
 
+    @StatementBudget(2)
     @GetMapping("/calendars/{calendarId}/invites")
     public List<InviteSummary> invites(@PathVariable long calendarId) {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        return calendarService.listInvites(p.email(), calendarId);
+        return calendarService.listInvites(p.userId(), calendarId);
     }
 
+    @StatementBudget(5)
     @PostMapping("/calendars/{calendarId}/invites")
     public Map<String, Object> invite(@PathVariable long calendarId, @Valid @RequestBody InviteRequest req) {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        String token = calendarService.invite(p.email(), calendarId, req.email(), req.role());
+        String token = calendarService.invite(p.userId(), calendarId, req.email(), req.role());
         return Map.of("token", token);
     }
 
+    @StatementBudget(2)
     @DeleteMapping("/calendars/{calendarId}/invites/{inviteId}")
     public void revokeInvite(@PathVariable long calendarId, @PathVariable long inviteId) {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        calendarService.revokeInvite(p.email(), calendarId, inviteId);
+        calendarService.revokeInvite(p.userId(), calendarId, inviteId);
     }
 }
@@ -46,6 +46,14 @@ public class CalendarDtos {
             String inviteeEmail
     ) {}
 
+    public record ChangeNotification(
+            long calendarId,
+            String type,
+            long id,
+            String op,
+            long version
+    ) {}
+
     public record MemberSummary(
             long userId,
             String email,
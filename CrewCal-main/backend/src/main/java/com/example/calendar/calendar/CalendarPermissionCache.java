@@ -0,0 +1,87 @@
+package com.example.calendar.calendar;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Component
+public class CalendarPermissionCache {
+
+    private record Key(long userId, long calendarId) {}
+
+    // 멤버가 아닌 경우(empty)도 캐시해서 같은 조회가 반복되지 않게 한다
+    private final Cache<Key, Optional<CalendarRole>> cache;
+
+    public CalendarPermissionCache(@Value("${app.cache.permissions.max-size:100000}") long maxSize,
+                                   @Value("${app.cache.permissions.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public CalendarRole get(long userId, long calendarId, Supplier<CalendarRole> loader) {
+        return cache.get(new Key(userId, calendarId), k -> Optional.ofNullable(loader.get())).orElse(null);
+    }
+
+    // 여러 캘린더를 한 번에. 캐시에 없는 캘린더만 loader 한 번으로 읽고, 멤버가 아닌 것(결과에 없음)도 캐시한다
+    public Map<Long, CalendarRole> getAll(long userId, Collection<Long> calendarIds,
+                                          Function<Set<Long>, Map<Long, CalendarRole>> loader) {
+        Set<Key> keys = calendarIds.stream().map(id -> new Key(userId, id)).collect(Collectors.toSet());
+        Map<Key, Optional<CalendarRole>> found = cache.getAll(keys, missing -> {
+            Map<Long, CalendarRole> loaded = loader.apply(missing.stream().map(Key::calendarId).collect(Collectors.toSet()));
+            Map<Key, Optional<CalendarRole>> out = new HashMap<>();
+            for (Key k : missing) out.put(k, Optional.ofNullable(loaded.get(k.calendarId())));
+            return out;
+        });
+        Map<Long, CalendarRole> roles = new HashMap<>();
+        found.forEach((k, role) -> role.ifPresent(r -> roles.put(k.calendarId(), r)));
+        return roles;
+    }
+
+    public void invalidate(long userId, long calendarId) {
+        Key key = new Key(userId, calendarId);
+        nowAndAfterTransaction(() -> cache.invalidate(key));
+    }
+
+    public void invalidateCalendar(long calendarId) {
+        nowAndAfterTransaction(() -> cache.asMap().keySet().removeIf(k -> k.calendarId() == calendarId));
+    }
+
+    // 멤버 변경은 호출한 트랜잭션이 끝나야 다른 요청에 보인다. 커밋 전에 지우기만 하면 그 사이 다른 요청이
+    // 이전 권한을 다시 읽어 TTL 동안 캐시하므로, 트랜잭션이 끝난 뒤(커밋/롤백 모두) 한 번 더 지운다.
+    // 바로 지우는 것은 같은 트랜잭션 안의 이후 조회가 이전 값을 보지 않게 하기 위해서다
+    private static void nowAndAfterTransaction(Runnable invalidation) {
+        invalidation.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidation.run();
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() { return cache.estimatedSize(); }
+
+    public CacheStats stats() { return cache.stats(); }
+}
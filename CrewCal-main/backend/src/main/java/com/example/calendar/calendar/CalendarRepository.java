@@ -1,16 +1,26 @@
 package com.example.calendar.calendar;
 
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class CalendarRepository {
     private final JdbcTemplate jdbc;
+    private final CalendarPermissionCache permissionCache;
 
-    public CalendarRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
+    public CalendarRepository(JdbcTemplate jdbc, CalendarPermissionCache permissionCache) {
+        this.jdbc = jdbc;
+        this.permissionCache = permissionCache;
+    }
 
     private static final RowMapper<CalendarDtos.CalendarSummary> CAL_SUMMARY = (rs, i) ->
             new CalendarDtos.CalendarSummary(
@@ -37,25 +47,65 @@ public class CalendarRepository {
                 name, color, ownerUserId
         );
         jdbc.update("insert into calendar_members (calendar_id, user_id, role) values (?,?,?)", calId, ownerUserId, "OWNER");
+        permissionCache.invalidate(ownerUserId, calId);
         return calId;
     }
 
+    // 멤버가 아니면 null
     public CalendarRole roleOf(long calendarId, long userId) {
-        String role = jdbc.queryForObject("select role from calendar_members where calendar_id=? and user_id=?", String.class, calendarId, userId);
-        return CalendarRole.valueOf(role);
+        return permissionCache.get(userId, calendarId, () -> jdbc.query(
+                "select role from calendar_members where calendar_id=? and user_id=?",
+                rs -> rs.next() ? CalendarRole.valueOf(rs.getString(1)) : null,
+                calendarId, userId
+        ));
+    }
+
+    // 여러 캘린더의 권한을 문장 하나로 (캐시에 없는 것만 읽는다). 멤버가 아닌 캘린더는 결과에 없다
+    public Map<Long, CalendarRole> rolesOf(Collection<Long> calendarIds, long userId) {
+        if (calendarIds.isEmpty()) return Map.of();
+        return permissionCache.getAll(userId, calendarIds, missing -> {
+            Map<Long, CalendarRole> out = new HashMap<>();
+            jdbc.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "select calendar_id, role from calendar_members where user_id=? and calendar_id = any(?)");
+                ps.setLong(1, userId);
+                ps.setArray(2, con.createArrayOf("bigint", missing.toArray()));
+                return ps;
+            }, (RowCallbackHandler) rs -> out.put(rs.getLong("calendar_id"), CalendarRole.valueOf(rs.getString("role"))));
+            return out;
+        });
     }
 
     public boolean isMember(long calendarId, long userId) {
-        Integer n = jdbc.queryForObject("select count(*) from calendar_members where calendar_id=? and user_id=?", Integer.class, calendarId, userId);
-        return n != null && n > 0;
+        return roleOf(calendarId, userId) != null;
     }
 
     public void updateCalendar(long calendarId, String name, String color) {
-        jdbc.update("update calendars set name=coalesce(?, name), color=coalesce(?, color), updated_at=now() where id=?",
+        jdbc.update("update calendars set name=coalesce(?, name), color=coalesce(?, color), updated_at=now(), " +
+                        "version = version + 1 where id=?",
                 name, color, calendarId);
     }
 
-    public void deleteCalendar(long calendarId) { jdbc.update("delete from calendars where id=?", calendarId); }
+    public void deleteCalendar(long calendarId) {
+        jdbc.update("delete from calendars where id=?", calendarId);
+        permissionCache.invalidateCalendar(calendarId);
+    }
+
+    // 사용자가 멤버인 캘린더(calendarIds 가 null 이면 전부)의 (id, version, role) 지문. events 는 읽지 않는다.
+    // 멤버에서 빠지거나 새로 들어와도 id 목록이 바뀌므로 값이 달라진다
+    public String versionTag(long userId, Collection<Long> calendarIds) {
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select md5(coalesce(string_agg(c.id || ':' || c.version || ':' || cm.role, ',' order by c.id), '')) " +
+                    "from calendars c join calendar_members cm on cm.calendar_id = c.id " +
+                    "where cm.user_id = ? and (cast(? as bigint[]) is null or c.id = any(?))");
+            Array ids = calendarIds == null ? null : con.createArrayOf("bigint", calendarIds.toArray());
+            ps.setLong(1, userId);
+            ps.setArray(2, ids);
+            ps.setArray(3, ids);
+            return ps;
+        }, rs -> rs.next() ? rs.getString(1) : "");
+    }
 
     public String calendarName(long calendarId) {
         return jdbc.queryForObject("select name from calendars where id=?", String.class, calendarId);
@@ -1,9 +1,11 @@
 package com.example.calendar.calendar;
 
-import com.example.calendar.auth.UserRepository;
+import com.example.calendar.auth.UserProfileCache;
 import com.example.calendar.common.exception.ApiException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -13,82 +15,87 @@ import java.util.UUID;
 public class CalendarService {
     private final CalendarRepository calendarRepository;
     private final SharingRepository sharingRepository;
-    private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
     private final InviteEmailService inviteEmailService;
+    private final ApplicationEventPublisher events;
 
     public CalendarService(CalendarRepository calendarRepository,
                            SharingRepository sharingRepository,
-                           UserRepository userRepository,
-                           InviteEmailService inviteEmailService) {
+                           UserProfileCache userProfileCache,
+                           InviteEmailService inviteEmailService,
+                           ApplicationEventPublisher events) {
         this.calendarRepository = calendarRepository;
         this.sharingRepository = sharingRepository;
-        this.userRepository = userRepository;
+        this.userProfileCache = userProfileCache;
         this.inviteEmailService = inviteEmailService;
+        this.events = events;
     }
 
-    public List<CalendarDtos.CalendarSummary> listForUser(String email) {
-        long userId = userRepository.findIdByEmail(email);
+    public List<CalendarDtos.CalendarSummary> listForUser(long userId) {
         return calendarRepository.listForUser(userId);
     }
 
-    public long create(String email, String name, String color) {
-        long userId = userRepository.findIdByEmail(email);
+    public String versionTag(long userId) {
+        return calendarRepository.versionTag(userId, null);
+    }
+
+    public long create(long userId, String name, String color) {
         return calendarRepository.createCalendar(userId, name, color);
     }
 
-    public void update(String email, long calendarId, String name, String color) {
-        long userId = userRepository.findIdByEmail(email);
+    public void update(long userId, long calendarId, String name, String color) {
         requireOwner(calendarId, userId);
         calendarRepository.updateCalendar(calendarId, name, color);
+        events.publishEvent(CalendarChange.calendar(calendarId, "UPDATED"));
     }
 
-    public void delete(String email, long calendarId) {
-        long userId = userRepository.findIdByEmail(email);
+    public void delete(long userId, long calendarId) {
         requireOwner(calendarId, userId);
         calendarRepository.deleteCalendar(calendarId);
+        events.publishEvent(CalendarChange.calendar(calendarId, "DELETED"));
     }
 
-    public List<CalendarDtos.MemberSummary> listMembers(String email, long calendarId) {
-        long userId = userRepository.findIdByEmail(email);
+    public List<CalendarDtos.MemberSummary> listMembers(long userId, long calendarId) {
         requireOwner(calendarId, userId);
         return sharingRepository.listMembers(calendarId);
     }
 
-    public List<CalendarDtos.InviteSummary> listInvites(String email, long calendarId) {
-        long userId = userRepository.findIdByEmail(email);
+    public List<CalendarDtos.InviteSummary> listInvites(long userId, long calendarId) {
         requireOwner(calendarId, userId);
         return sharingRepository.listInvites(calendarId);
     }
 
-    public String invite(String email, long calendarId, String inviteeEmail, String role) {
-        long inviterId = userRepository.findIdByEmail(email);
+    @Transactional
+    public String invite(long inviterId, long calendarId, String inviteeEmail, String role) {
         requireOwner(calendarId, inviterId);
+        // 토큰은 유효한데 계정이 지워진 경우 (AuthController.me 와 같은 처리)
+        var inviter = userProfileCache.get(inviterId);
+        if (inviter == null) throw new ApiException(HttpStatus.UNAUTHORIZED, "Unauthenticated");
 
         String token = UUID.randomUUID().toString().replace("-", "");
         sharingRepository.createInvite(calendarId, inviteeEmail, role, token, inviterId, OffsetDateTime.now().plusDays(7));
 
         String calendarName = calendarRepository.calendarName(calendarId);
-        inviteEmailService.sendInvite(inviteeEmail, calendarName, email, role, token);
+        inviteEmailService.enqueueInvite(inviteeEmail, calendarName, inviter.email(), role, token);
 
         return token;
     }
 
-    public void revokeInvite(String email, long calendarId, long inviteId) {
-        long userId = userRepository.findIdByEmail(email);
+    public void revokeInvite(long userId, long calendarId, long inviteId) {
         requireOwner(calendarId, userId);
         sharingRepository.revokeInvite(inviteId);
     }
 
-    public void changeRole(String email, long calendarId, long targetUserId, String role) {
-        long userId = userRepository.findIdByEmail(email);
+    public void changeRole(long userId, long calendarId, long targetUserId, String role) {
         requireOwner(calendarId, userId);
         sharingRepository.setMemberRole(calendarId, targetUserId, role);
+        events.publishEvent(CalendarChange.member(calendarId, targetUserId, "UPDATED"));
     }
 
-    public void removeMember(String email, long calendarId, long targetUserId) {
-        long userId = userRepository.findIdByEmail(email);
+    public void removeMember(long userId, long calendarId, long targetUserId) {
         requireOwner(calendarId, userId);
         sharingRepository.removeMember(calendarId, targetUserId);
+        events.publishEvent(CalendarChange.member(calendarId, targetUserId, "DELETED"));
     }
 
     private void requireOwner(long calendarId, long userId) {
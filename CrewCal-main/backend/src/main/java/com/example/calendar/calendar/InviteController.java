@@ -3,6 +3,7 @@ package com.example.calendar.calendar;
 import com.example.calendar.common.exception.ApiException;
 import com.example.calendar.common.security.AuthUtil;
 import com.example.calendar.common.security.UserPrincipal;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
@@ -11,9 +12,11 @@ import org.springframework.web.bind.annotation.*;
 public class InviteController {
 
     private final SharingRepository sharingRepository;
+    private final ApplicationEventPublisher events;
 
-    public InviteController(SharingRepository sharingRepository) {
+    public InviteController(SharingRepository sharingRepository, ApplicationEventPublisher events) {
         this.sharingRepository = sharingRepository;
+        this.events = events;
     }
 
     @GetMapping("/{token}")
@@ -33,6 +36,7 @@ public class InviteController {
             throw new ApiException(HttpStatus.FORBIDDEN, "Invite email mismatch. Please login as invitee.");
         }
         sharingRepository.acceptInvite(token, p.userId());
+        events.publishEvent(CalendarChange.member(info.calendarId(), p.userId(), "CREATED"));
     }
 
     @PostMapping("/{token}/decline")
@@ -1,23 +1,23 @@
 package com.example.calendar.calendar;
 
+import com.example.calendar.common.mail.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 @Service
 public class InviteEmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository outboxRepository;
     private final String frontendBaseUrl;
 
-    public InviteEmailService(JavaMailSender mailSender,
+    public InviteEmailService(EmailOutboxRepository outboxRepository,
                               @Value("${app.frontend.base-url}") String frontendBaseUrl) {
-        this.mailSender = mailSender;
+        this.outboxRepository = outboxRepository;
         this.frontendBaseUrl = frontendBaseUrl;
     }
 
-    public void sendInvite(String toEmail, String calendarName, String inviterEmail, String role, String token) {
+    // 실제 발송은 EmailOutboxDispatcher 가 한다 (호출한 트랜잭션과 함께 커밋됨)
+    public void enqueueInvite(String toEmail, String calendarName, String inviterEmail, String role, String token) {
         String link = frontendBaseUrl + "/invite/" + token;
 
         String body =
@@ -28,11 +28,6 @@ public class InviteEmailService {
                 "Accept/Decline:\n" + link + "\n\n" +
                 "(If you cannot open the link, copy & paste into your browser.)\n";
 
-        SimpleMailMessage msg = new SimpleMailMessage();
-        msg.setTo(toEmail);
-        msg.setSubject("[Calendar] Invitation to " + calendarName);
-        msg.setText(body);
-
-        mailSender.send(msg);
+        outboxRepository.enqueue(toEmail, "[Calendar] Invitation to " + calendarName, body);
     }
 }
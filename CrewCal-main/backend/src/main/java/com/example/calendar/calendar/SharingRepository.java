@@ -10,8 +10,16 @@ import java.util.List;
 @Repository
 public class SharingRepository {
     private final JdbcTemplate jdbc;
+    private final CalendarPermissionCache permissionCache;
 
-    public SharingRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
+    public SharingRepository(JdbcTemplate jdbc, CalendarPermissionCache permissionCache) {
+        this.jdbc = jdbc;
+        this.permissionCache = permissionCache;
+    }
+
+    // 멤버 변경은 FREEBUSY 마스킹과 목록에 영향을 주므로 같은 문장에서 calendars.version 을 올린다
+    private static final String BUMP_CHANGED =
+            " update calendars set version = version + 1, updated_at = now() where id in (select calendar_id from changed)";
 
     private static final RowMapper<CalendarDtos.MemberSummary> MEMBER = (rs, i) ->
             new CalendarDtos.MemberSummary(
@@ -79,13 +87,19 @@ public class SharingRepository {
     }
 
     public void acceptInvite(String token, long userId) {
-        jdbc.update(
-                "insert into calendar_members (calendar_id, user_id, role) " +
-                "select calendar_id, ?, role from calendar_invites where token=? " +
-                "on conflict (calendar_id, user_id) do update set role = excluded.role",
+        List<Long> calendarIds = jdbc.queryForList(
+                "with changed as (" +
+                "  insert into calendar_members (calendar_id, user_id, role) " +
+                "  select calendar_id, ?, role from calendar_invites where token=? " +
+                "  on conflict (calendar_id, user_id) do update set role = excluded.role " +
+                "  returning calendar_id), " +
+                "bump as (update calendars set version = version + 1, updated_at = now() where id in (select calendar_id from changed)) " +
+                "select calendar_id from changed",
+                Long.class,
                 userId, token
         );
         jdbc.update("update calendar_invites set status='ACCEPTED' where token=? and status='PENDING'", token);
+        calendarIds.forEach(calendarId -> permissionCache.invalidate(userId, calendarId));
     }
 
     public void declineInvite(String token) {
@@ -97,10 +111,20 @@ public class SharingRepository {
     }
 
     public void setMemberRole(long calendarId, long userId, String role) {
-        jdbc.update("update calendar_members set role=? where calendar_id=? and user_id=?", role, calendarId, userId);
+        jdbc.update(
+                "with changed as (update calendar_members set role=? where calendar_id=? and user_id=? returning calendar_id)" +
+                BUMP_CHANGED,
+                role, calendarId, userId
+        );
+        permissionCache.invalidate(userId, calendarId);
     }
 
     public void removeMember(long calendarId, long userId) {
-        jdbc.update("delete from calendar_members where calendar_id=? and user_id=?", calendarId, userId);
+        jdbc.update(
+                "with changed as (delete from calendar_members where calendar_id=? and user_id=? returning calendar_id)" +
+                BUMP_CHANGED,
+                calendarId, userId
+        );
+        permissionCache.invalidate(userId, calendarId);
     }
 }
@@ -1,10 +1,78 @@
 package com.example.calendar.common;
 
+import com.example.calendar.auth.PasswordHasher;
+import com.example.calendar.auth.UserProfileCache;
+import com.example.calendar.calendar.CalendarPermissionCache;
+import com.example.calendar.common.mail.EmailOutboxDispatcher;
+import com.example.calendar.common.mail.EmailOutboxRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @RestController
 public class HealthController {
+    private final CalendarPermissionCache permissionCache;
+    private final UserProfileCache userProfileCache;
+    private final EmailOutboxRepository outboxRepository;
+    private final ObjectProvider<EmailOutboxDispatcher> outboxDispatcher;
+    private final PasswordHasher passwordHasher;
+
+    public HealthController(CalendarPermissionCache permissionCache, UserProfileCache userProfileCache,
+                            EmailOutboxRepository outboxRepository, ObjectProvider<EmailOutboxDispatcher> outboxDispatcher,
+                            PasswordHasher passwordHasher) {
+        this.permissionCache = permissionCache;
+        this.userProfileCache = userProfileCache;
+        this.outboxRepository = outboxRepository;
+        this.outboxDispatcher = outboxDispatcher;
+        this.passwordHasher = passwordHasher;
+    }
+
     @GetMapping("/health")
     public String health() { return "ok"; }
+
+    @GetMapping("/health/caches")
+    public Map<String, Object> caches() {
+        return Map.of(
+                "calendarPermissions", cacheStats(permissionCache.size(), permissionCache.stats()),
+                "userProfiles", cacheStats(userProfileCache.size(), userProfileCache.stats())
+        );
+    }
+
+    @GetMapping("/health/outbox")
+    public Map<String, Object> outbox() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("pending", outboxRepository.pendingCount());
+        EmailOutboxDispatcher d = outboxDispatcher.getIfAvailable();
+        if (d != null) {
+            out.put("sent", d.sentCount());
+            out.put("retried", d.retriedCount());
+            out.put("failed", d.failedCount());
+        }
+        return out;
+    }
+
+    // 로그인 bcrypt 풀: 대기열이 계속 차 있으면 rejected(503) 가 늘어난다
+    @GetMapping("/health/auth")
+    public Map<String, Object> auth() {
+        return Map.of(
+                "queued", passwordHasher.queueDepth(),
+                "active", passwordHasher.activeCount(),
+                "completed", passwordHasher.completedCount(),
+                "rejected", passwordHasher.rejectedCount()
+        );
+    }
+
+    private static Map<String, Object> cacheStats(long size, CacheStats stats) {
+        return Map.of(
+                "size", size,
+                "hits", stats.hitCount(),
+                "misses", stats.missCount(),
+                "hitRate", stats.hitRate(),
+                "evictions", stats.evictionCount()
+        );
+    }
 }
@@ -0,0 +1,118 @@
+package com.example.calendar.common.mail;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// email_outbox 를 배치로 비운다. 한 배치는 JavaMailSender 한 번 호출 = SMTP 연결 하나로 보낸다.
+@Component
+@ConditionalOnProperty(name = "app.mail.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final long BASE_BACKOFF_SECONDS = 30;
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    private final EmailOutboxRepository repository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate tx;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public EmailOutboxDispatcher(EmailOutboxRepository repository,
+                                 JavaMailSender mailSender,
+                                 TransactionTemplate tx,
+                                 @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${app.mail.outbox.max-attempts:6}") int maxAttempts) {
+        this.repository = repository;
+        this.mailSender = mailSender;
+        this.tx = tx;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        Integer n;
+        do {
+            n = tx.execute(status -> sendBatch());
+        } while (n != null && n == batchSize);
+    }
+
+    private int sendBatch() {
+        List<EmailOutboxRepository.OutboxMail> batch = repository.lockDue(batchSize);
+        if (batch.isEmpty()) return 0;
+
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            var mail = batch.get(i);
+            SimpleMailMessage msg = new SimpleMailMessage();
+            msg.setTo(mail.toEmail());
+            msg.setSubject(mail.subject());
+            msg.setText(mail.body());
+            messages[i] = msg;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) batchFailure = e;
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+
+        List<Long> ok = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            var mail = batch.get(i);
+            Exception error = batchFailure != null ? batchFailure : failureOf(failures, messages[i]);
+            if (error == null) {
+                ok.add(mail.id());
+            } else if (mail.attempts() + 1 >= maxAttempts) {
+                log.warn("Giving up on outbox mail {} to {} after {} attempts", mail.id(), mail.toEmail(), mail.attempts() + 1, error);
+                repository.markFailed(mail.id(), String.valueOf(error.getMessage()));
+                failed.incrementAndGet();
+            } else {
+                long delay = Math.min(BASE_BACKOFF_SECONDS << Math.min(mail.attempts(), 16), MAX_BACKOFF_SECONDS);
+                repository.markRetry(mail.id(), delay, String.valueOf(error.getMessage()));
+                retried.incrementAndGet();
+            }
+        }
+        repository.markSent(ok);
+        sent.addAndGet(ok.size());
+        return batch.size();
+    }
+
+    // failedMessages 의 키는 넘겨준 SimpleMailMessage 객체 그대로다
+    private static Exception failureOf(Map<Object, Exception> failures, SimpleMailMessage msg) {
+        for (var e : failures.entrySet()) {
+            if (e.getKey() == msg) return e.getValue();
+        }
+        return null;
+    }
+
+    public long sentCount() { return sent.get(); }
+
+    public long retriedCount() { return retried.get(); }
+
+    public long failedCount() { return failed.get(); }
+}
@@ -0,0 +1,68 @@
+package com.example.calendar.common.mail;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public class EmailOutboxRepository {
+    private final JdbcTemplate jdbc;
+
+    public EmailOutboxRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
+
+    public record OutboxMail(long id, String toEmail, String subject, String body, int attempts) {}
+
+    public long enqueue(String toEmail, String subject, String body) {
+        return jdbc.queryForObject(
+                "insert into email_outbox (to_email, subject, body) values (?,?,?) returning id",
+                Long.class,
+                toEmail, subject, body
+        );
+    }
+
+    // 호출하는 트랜잭션이 끝날 때까지 행을 잠가 두므로 다른 인스턴스와 겹치지 않는다
+    public List<OutboxMail> lockDue(int limit) {
+        return jdbc.query(
+                "select id, to_email, subject, body, attempts from email_outbox " +
+                "where status = 'PENDING' and next_attempt_at <= now() " +
+                "order by next_attempt_at limit ? for update skip locked",
+                (rs, i) -> new OutboxMail(
+                        rs.getLong("id"),
+                        rs.getString("to_email"),
+                        rs.getString("subject"),
+                        rs.getString("body"),
+                        rs.getInt("attempts")
+                ),
+                limit
+        );
+    }
+
+    public void markSent(Collection<Long> ids) {
+        if (ids.isEmpty()) return;
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "update email_outbox set status = 'SENT', sent_at = now(), attempts = attempts + 1 where id = any(?)");
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+
+    public void markRetry(long id, long delaySeconds, String error) {
+        jdbc.update(
+                "update email_outbox set attempts = attempts + 1, next_attempt_at = now() + make_interval(secs => ?), last_error = ? where id = ?",
+                delaySeconds, error, id
+        );
+    }
+
+    public void markFailed(long id, String error) {
+        jdbc.update("update email_outbox set status = 'FAILED', attempts = attempts + 1, last_error = ? where id = ?", error, id);
+    }
+
+    public long pendingCount() {
+        Long n = jdbc.queryForObject("select count(*) from email_outbox where status = 'PENDING'", Long.class);
+        return n == null ? 0 : n;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.calendar.common.metrics;
+
+import com.example.calendar.auth.PasswordHasher;
+import com.example.calendar.auth.UserProfileCache;
+import com.example.calendar.calendar.CalendarPermissionCache;
+import com.example.calendar.common.mail.EmailOutboxDispatcher;
+import com.example.calendar.common.mail.EmailOutboxRepository;
+import com.example.calendar.event.EventArchiveJob;
+import com.example.calendar.reminder.ReminderDispatcher;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// /health/* 에서 JSON 으로 보여주던 값들을 Prometheus 로도 내보낸다 (이름은 Micrometer 관례를 따름)
+@Component
+public class AppMeterBinder implements MeterBinder {
+    private final CalendarPermissionCache permissionCache;
+    private final UserProfileCache userProfileCache;
+    private final EmailOutboxRepository outboxRepository;
+    private final ObjectProvider<EmailOutboxDispatcher> outboxDispatcher;
+    private final ObjectProvider<ReminderDispatcher> reminderDispatcher;
+    private final PasswordHasher passwordHasher;
+    private final EventArchiveJob eventArchiveJob;
+
+    public AppMeterBinder(CalendarPermissionCache permissionCache, UserProfileCache userProfileCache,
+                          EmailOutboxRepository outboxRepository, ObjectProvider<EmailOutboxDispatcher> outboxDispatcher,
+                          ObjectProvider<ReminderDispatcher> reminderDispatcher, PasswordHasher passwordHasher,
+                          EventArchiveJob eventArchiveJob) {
+        this.permissionCache = permissionCache;
+        this.userProfileCache = userProfileCache;
+        this.outboxRepository = outboxRepository;
+        this.outboxDispatcher = outboxDispatcher;
+        this.reminderDispatcher = reminderDispatcher;
+        this.passwordHasher = passwordHasher;
+        this.eventArchiveJob = eventArchiveJob;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache(registry, "calendarPermissions", permissionCache::size, permissionCache::stats);
+        cache(registry, "userProfiles", userProfileCache::size, userProfileCache::stats);
+
+        // scrape 마다 count 쿼리 한 번
+        Gauge.builder("mail.outbox.pending", outboxRepository, EmailOutboxRepository::pendingCount)
+                .description("Emails waiting in the outbox")
+                .register(registry);
+        EmailOutboxDispatcher mail = outboxDispatcher.getIfAvailable();
+        if (mail != null) {
+            counter(registry, "mail.outbox.sent", mail::sentCount);
+            counter(registry, "mail.outbox.retried", mail::retriedCount);
+            counter(registry, "mail.outbox.failed", mail::failedCount);
+        }
+
+        ReminderDispatcher reminders = reminderDispatcher.getIfAvailable();
+        if (reminders != null) {
+            counter(registry, "reminders.claimed", reminders::claimedCount);
+            counter(registry, "reminders.fired", reminders::firedCount);
+            Gauge.builder("reminders.scheduled", reminders, ReminderDispatcher::scheduledCount)
+                    .description("Reminders waiting in the in-memory timing wheel")
+                    .register(registry);
+        }
+
+        Gauge.builder("auth.bcrypt.queue", passwordHasher, PasswordHasher::queueDepth)
+                .description("Password hashes waiting for a bcrypt thread")
+                .register(registry);
+        Gauge.builder("auth.bcrypt.active", passwordHasher, PasswordHasher::activeCount).register(registry);
+        counter(registry, "auth.bcrypt.completed", passwordHasher::completedCount);
+        counter(registry, "auth.bcrypt.rejected", passwordHasher::rejectedCount);
+
+        counter(registry, "events.archived", eventArchiveJob::archivedCount);
+    }
+
+    private static void cache(MeterRegistry registry, String name, LongSupplier size, Supplier<CacheStats> stats) {
+        Gauge.builder("cache.size", size, s -> s.getAsLong()).tag("cache", name).register(registry);
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().hitCount())
+                .tags("cache", name, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", stats, s -> s.get().missCount())
+                .tags("cache", name, "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", stats, s -> s.get().evictionCount())
+                .tag("cache", name).register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String name, LongSupplier value) {
+        FunctionCounter.builder(name, value, v -> v.getAsLong()).register(registry);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.calendar.common.metrics;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final StatementBudgetInterceptor statementBudgetInterceptor;
+
+    public MetricsConfig(StatementBudgetInterceptor statementBudgetInterceptor) {
+        this.statementBudgetInterceptor = statementBudgetInterceptor;
+    }
+
+    // 모든 DataSource 를 감싸서 JdbcTemplate/Flyway 가 실행하는 문장이 전부 잡히게 한다
+    @Bean
+    static BeanPostProcessor queryMetricsDataSourcePostProcessor(ObjectProvider<QueryMetrics> metrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && !(bean instanceof QueryMetricsDataSource)) {
+                    return new QueryMetricsDataSource(ds, metrics::getIfAvailable);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementBudgetInterceptor);
+    }
+
+    // 동적으로 만든 SQL 이 생겨도 시계열이 무한히 늘지 않도록 shape 종류를 제한한다
+    @Bean
+    MeterFilter sqlShapeCardinalityLimit() {
+        return MeterFilter.maximumAllowableTags("db.statement", "sql", 300, MeterFilter.deny());
+    }
+}
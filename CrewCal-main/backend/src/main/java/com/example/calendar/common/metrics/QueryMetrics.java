@@ -0,0 +1,96 @@
+package com.example.calendar.common.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// SQL shape 별 실행 시간/행 수와, 요청(route)별 문장 수/행 수/DB 시간을 기록한다.
+// shape: 공백을 접고 숫자 리터럴을 ? 로 바꾼 SQL (앱의 SQL 은 거의 상수라 종류가 제한적이다)
+@Component
+public class QueryMetrics {
+
+    private static final int MAX_SHAPE_LENGTH = 200;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+
+    private final MeterRegistry registry;
+    private final Cache<String, String> shapes = Caffeine.newBuilder().maximumSize(2_000).build();
+    private final ConcurrentMap<String, Timer> statementTimers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DistributionSummary> statementRows = new ConcurrentHashMap<>();
+
+    public QueryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public String shape(String sql) {
+        if (sql == null) return "UNKNOWN";
+        return shapes.get(sql, QueryMetrics::normalize);
+    }
+
+    static String normalize(String sql) {
+        String s = NUMBER.matcher(WHITESPACE.matcher(sql.trim()).replaceAll(" ")).replaceAll("?");
+        if (s.length() <= MAX_SHAPE_LENGTH) return s;
+        // 앞부분이 같은 다른 SQL 이 합쳐지지 않도록 전체의 hash 를 붙인다
+        return s.substring(0, MAX_SHAPE_LENGTH - 12) + "... #" + Integer.toHexString(s.hashCode());
+    }
+
+    // 문장을 실행하기 전에 호출한다 (fail 모드 예산 검사)
+    void beforeStatement(String sql) {
+        QueryStats stats = QueryStats.current();
+        if (stats == null || !stats.nextExceedsBudget()) return;
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        throw new StatementBudgetExceededException("Statement budget " + stats.budget() + " exceeded by: " + shape(sql)
+                + (repeated == null ? "" : " (most repeated x" + repeated.getValue() + ": " + repeated.getKey() + ")"));
+    }
+
+    void statement(String sql, long nanos) {
+        String shape = shape(sql);
+        statementTimers.computeIfAbsent(shape, k -> Timer.builder("db.statement")
+                        .description("JDBC statement execution time by SQL shape")
+                        .tag("sql", k)
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+        QueryStats stats = QueryStats.current();
+        if (stats != null) stats.statement(shape, nanos);
+    }
+
+    void rows(String sql, long rows) {
+        String shape = shape(sql);
+        statementRows.computeIfAbsent(shape, k -> DistributionSummary.builder("db.statement.rows")
+                        .description("Rows read or written per statement by SQL shape")
+                        .tag("sql", k)
+                        .register(registry))
+                .record(rows);
+        QueryStats stats = QueryStats.current();
+        if (stats != null) stats.rows(rows);
+    }
+
+    // uri 는 route 템플릿 (/events/{eventId}) 이라 태그 수가 제한된다
+    void request(String method, String uri, QueryStats stats) {
+        DistributionSummary.builder("db.request.statements")
+                .description("JDBC statements per HTTP request")
+                .tags("method", method, "uri", uri)
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 20, 50, 100)
+                .register(registry)
+                .record(stats.statements());
+        DistributionSummary.builder("db.request.rows")
+                .description("Rows read or written per HTTP request")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(stats.rows());
+        Timer.builder("db.request.time")
+                .description("Total JDBC execution time per HTTP request")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(stats.nanos(), TimeUnit.NANOSECONDS);
+    }
+}
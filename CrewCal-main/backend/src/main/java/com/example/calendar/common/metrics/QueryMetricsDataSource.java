@@ -0,0 +1,159 @@
+package com.example.calendar.common.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+// 커넥션/문장/ResultSet 을 JDK proxy 로 감싸 문장 실행 시간과 행 수를 QueryMetrics 에 넘긴다.
+// DelegatingDataSource 라서 Boot 의 Hikari 풀 메트릭은 원래 풀을 그대로 찾아간다
+public class QueryMetricsDataSource extends DelegatingDataSource {
+
+    private final Supplier<QueryMetrics> metrics;
+
+    public QueryMetricsDataSource(DataSource target, Supplier<QueryMetrics> metrics) {
+        super(target);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        // 메트릭 빈이 아직 없으면(기동 중 Flyway 등) 감싸지 않는다
+        QueryMetrics m = metrics.get();
+        return m == null ? connection : proxy(Connection.class, new ConnectionHandler(connection, m));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryMetricsDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record ConnectionHandler(Connection target, QueryMetrics metrics) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryMetricsDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement" -> proxy(PreparedStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0], metrics));
+                case "prepareCall" -> proxy(CallableStatement.class,
+                        new StatementHandler((Statement) result, (String) args[0], metrics));
+                case "createStatement" -> proxy(Statement.class, new StatementHandler((Statement) result, null, metrics));
+                default -> result;
+            };
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final QueryMetrics metrics;
+        private String sql;
+
+        StatementHandler(Statement target, String sql, QueryMetrics metrics) {
+            this.target = target;
+            this.sql = sql;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            // Statement.execute*(sql) / addBatch(sql) 는 SQL 을 인자로 받는다
+            if (args != null && args.length > 0 && args[0] instanceof String s
+                    && (name.startsWith("execute") || name.equals("addBatch"))) {
+                sql = s;
+            }
+            if (!name.startsWith("execute")) {
+                Object result = QueryMetricsDataSource.invoke(target, method, args);
+                return name.equals("getResultSet") && result != null ? resultSet((ResultSet) result) : result;
+            }
+
+            metrics.beforeStatement(sql);
+            long start = System.nanoTime();
+            Object result = QueryMetricsDataSource.invoke(target, method, args);
+            metrics.statement(sql, System.nanoTime() - start);
+            if (result instanceof ResultSet rs) return resultSet(rs);
+            if (result instanceof Integer n && n >= 0) metrics.rows(sql, n);
+            else if (result instanceof Long n && n >= 0) metrics.rows(sql, n);
+            else if (result instanceof int[] counts) metrics.rows(sql, sum(counts));
+            else if (result instanceof long[] counts) metrics.rows(sql, sum(counts));
+            return result;
+        }
+
+        private ResultSet resultSet(ResultSet rs) {
+            return proxy(ResultSet.class, new ResultSetHandler(rs, sql, metrics));
+        }
+
+        // SUCCESS_NO_INFO(-2) 같은 음수는 뺀다
+        private static long sum(int[] counts) {
+            long total = 0;
+            for (int c : counts) if (c > 0) total += c;
+            return total;
+        }
+
+        private static long sum(long[] counts) {
+            long total = 0;
+            for (long c : counts) if (c > 0) total += c;
+            return total;
+        }
+    }
+
+    // next() 가 true 를 돌려준 횟수를 세고, 닫힐 때 한 번 기록한다
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private final QueryMetrics metrics;
+        private long rows;
+        private boolean recorded;
+
+        ResultSetHandler(ResultSet target, String sql, QueryMetrics metrics) {
+            this.target = target;
+            this.sql = sql;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = QueryMetricsDataSource.invoke(target, method, args);
+            switch (method.getName()) {
+                case "next" -> {
+                    if (Boolean.TRUE.equals(result)) rows++;
+                }
+                case "close" -> {
+                    if (!recorded) {
+                        recorded = true;
+                        metrics.rows(sql, rows);
+                    }
+                }
+                default -> { }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.calendar.common.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// 요청마다 QueryStats 를 열고, 끝나면 route 템플릿 기준으로 문장 수/행 수/DB 시간을 기록한다
+@Component
+public class QueryMetricsFilter extends OncePerRequestFilter {
+
+    private final QueryMetrics metrics;
+
+    public QueryMetricsFilter(QueryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats previous = QueryStats.current();
+        QueryStats stats = QueryStats.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryStats.end(previous);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metrics.request(request.getMethod(), pattern != null ? pattern.toString() : "UNKNOWN", stats);
+        }
+    }
+}
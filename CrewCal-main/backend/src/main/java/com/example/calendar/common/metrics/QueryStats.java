@@ -0,0 +1,73 @@
+package com.example.calendar.common.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// 요청 하나가 실행한 SQL 통계. 요청 스레드의 ThreadLocal 에 붙는다
+// (async 응답의 후속 처리나 다른 스레드에서 실행된 문장은 세지 않는다)
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int budget;
+    private boolean enforceBudget;
+    private long rows;
+    private long nanos;
+    private final Map<String, Integer> byShape = new HashMap<>();
+
+    private QueryStats() {}
+
+    // 새 통계를 현재 스레드에 붙이고, 이전 값(보통 null)은 end 에서 되돌린다
+    public static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end(QueryStats previous) {
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    void statement(String shape, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        byShape.merge(shape, 1, Integer::sum);
+    }
+
+    // 0 이면 예산 없음
+    void budget(int max, boolean enforce) {
+        this.budget = max;
+        this.enforceBudget = enforce;
+    }
+
+    // fail 모드에서 다음 문장이 예산을 넘으면 true
+    boolean nextExceedsBudget() {
+        return enforceBudget && budget > 0 && statements + 1 > budget;
+    }
+
+    public boolean overBudget() {
+        return budget > 0 && statements > budget;
+    }
+
+    public int budget() { return budget; }
+
+    void rows(long count) {
+        rows += count;
+    }
+
+    public int statements() { return statements; }
+    public long rows() { return rows; }
+    public long nanos() { return nanos; }
+    public Map<String, Integer> byShape() { return byShape; }
+
+    // 가장 많이 반복된 SQL shape (N+1 추적용). 문장이 없으면 null
+    public Map.Entry<String, Integer> mostRepeated() {
+        return byShape.entrySet().stream().max(Map.Entry.comparingByValue()).orElse(null);
+    }
+}
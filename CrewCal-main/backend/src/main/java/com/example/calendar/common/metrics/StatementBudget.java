@@ -0,0 +1,16 @@
+package com.example.calendar.common.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// 핸들러가 요청 한 번에 실행해도 되는 JDBC 문장 수의 상한 (요청 스레드에서 실행된 것만 센다).
+// 권한 캐시가 비어 있는 경우를 기준으로 잡는다. 넘으면 app.query-budget.mode 에 따라 경고 로그(warn) 또는 예외(fail)
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+    int value();
+}
@@ -0,0 +1,8 @@
+package com.example.calendar.common.metrics;
+
+// fail 모드에서 예산을 넘는 문장을 실행하기 직전에 던진다 (문장은 실행되지 않는다)
+public class StatementBudgetExceededException extends RuntimeException {
+    public StatementBudgetExceededException(String message) {
+        super(message);
+    }
+}
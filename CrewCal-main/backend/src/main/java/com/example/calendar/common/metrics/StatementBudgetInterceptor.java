@@ -0,0 +1,48 @@
+package com.example.calendar.common.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Locale;
+import java.util.Map;
+
+// @StatementBudget 이 붙은 핸들러의 예산을 요청의 QueryStats 에 걸어 둔다.
+// warn: 요청이 끝난 뒤 가장 많이 반복된 SQL shape 와 함께 경고, fail: 넘는 순간 예외 (테스트용), off: 검사하지 않음
+@Component
+public class StatementBudgetInterceptor implements HandlerInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetInterceptor.class);
+
+    enum Mode { OFF, WARN, FAIL }
+
+    private final Mode mode;
+
+    public StatementBudgetInterceptor(@Value("${app.query-budget.mode:warn}") String mode) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (mode == Mode.OFF || !(handler instanceof HandlerMethod method)) return true;
+        StatementBudget budget = method.getMethodAnnotation(StatementBudget.class);
+        QueryStats stats = QueryStats.current();
+        if (budget != null && stats != null) stats.budget(budget.value(), mode == Mode.FAIL);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (mode != Mode.WARN) return;
+        QueryStats stats = QueryStats.current();
+        if (stats == null || !stats.overBudget()) return;
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        log.warn("{} {} issued {} statements (budget {}); most repeated x{}: {}",
+                request.getMethod(), request.getRequestURI(), stats.statements(), stats.budget(),
+                repeated.getValue(), repeated.getKey());
+    }
+}
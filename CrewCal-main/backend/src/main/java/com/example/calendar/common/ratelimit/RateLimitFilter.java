@@ -0,0 +1,68 @@
+package com.example.calendar.common.ratelimit;
+
+import com.example.calendar.common.exception.ApiError;
+import com.example.calendar.common.security.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+// JwtAuthFilter 다음에 둔다: USER 정책은 인증된 사용자 id, 그 외(또는 익명)는 클라이언트 IP 로 버킷을 고른다.
+// IP 는 getRemoteAddr() 라서 프록시 뒤에서는 server.forward-headers-strategy 를 켜야 실제 주소가 된다
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RateLimiter.Limit limit = limiter.match(request.getMethod(), path);
+        if (limit == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RateLimiter.Policy policy = limit.policy();
+        Long userId = policy.key() == RateLimiter.Key.USER ? currentUserId() : null;
+        String key = userId != null ? "u:" + userId : "ip:" + request.getRemoteAddr();
+        long waitMs = limiter.acquire(limit, key);
+        if (waitMs == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((waitMs + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiError(
+                Instant.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                "Too many requests (" + policy.name() + "); retry later",
+                request.getRequestURI()
+        ));
+    }
+
+    private static Long currentUserId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof UserPrincipal p ? p.userId() : null;
+    }
+}
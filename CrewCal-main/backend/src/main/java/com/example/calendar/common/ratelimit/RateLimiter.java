@@ -0,0 +1,116 @@
+package com.example.calendar.common.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+// 경로별 정책으로 요청을 제한한다. 키(IP 또는 사용자)마다 TokenBucket 하나.
+// 버킷은 정책별 Caffeine 맵에 두고, 다 찰 만큼 쉬었던 키(= 새로 만들어도 같은 상태)는 expireAfterAccess 로 지운다.
+// 맵 자체도 max-keys 로 제한해서 키를 바꿔 가며 보내는 클라이언트가 있어도 메모리가 묶인다
+@Component
+public class RateLimiter {
+
+    public enum Key { IP, USER }
+
+    // capacity: 한 번에 몰아서 쓸 수 있는 요청 수, perMinute: 분당 채워지는 토큰 수
+    public record Policy(String name, Set<String> methods, List<String> patterns, Key key, int capacity, double perMinute) {}
+
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+
+    // 설정(app.rate-limit.<name>.capacity / per-minute)이 없을 때의 기본 정책. 위에서부터 처음 맞는 것 하나만 적용한다
+    private static final List<Policy> DEFAULTS = List.of(
+            // BCrypt 를 태우는 경로는 IP 기준 (로그인 전이라 사용자를 모름)
+            new Policy("login", Set.of("POST"), List.of("/auth/login"), Key.IP, 10, 10),
+            new Policy("signup", Set.of("POST"), List.of("/auth/signup"), Key.IP, 5, 1),
+            // 초대 토큰 조회/수락 (토큰 대입 방지), 초대 메일 발송
+            new Policy("invite-token", Set.of("GET", "POST"), List.of("/invites/**"), Key.IP, 20, 10),
+            new Policy("invite-send", Set.of("POST"), List.of("/calendars/*/invites"), Key.USER, 20, 2),
+            new Policy("event-write", Set.of("POST", "PATCH", "DELETE"),
+                    List.of("/events", "/events:batch", "/events/**"), Key.USER, 120, 120)
+    );
+
+    private final boolean enabled;
+    private final List<Limit> limits;
+    private final long baseNanos = System.nanoTime();
+
+    public RateLimiter(Environment env, MeterRegistry registry,
+                       @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${app.rate-limit.max-keys:100000}") long maxKeys) {
+        this.enabled = enabled;
+        this.limits = DEFAULTS.stream().map(d -> {
+            String prefix = "app.rate-limit." + d.name() + ".";
+            Policy p = new Policy(d.name(), d.methods(), d.patterns(), d.key(),
+                    env.getProperty(prefix + "capacity", Integer.class, d.capacity()),
+                    env.getProperty(prefix + "per-minute", Double.class, d.perMinute()));
+            if (p.capacity() < 1 || p.capacity() > TokenBucket.MAX_CAPACITY || p.perMinute() <= 0) {
+                throw new IllegalStateException("Invalid rate limit policy: " + p);
+            }
+            return new Limit(p, maxKeys, registry);
+        }).toList();
+    }
+
+    // 요청에 적용할 정책(과 그 버킷들). 없으면 null
+    public Limit match(String method, String path) {
+        if (!enabled) return null;
+        for (Limit l : limits) {
+            if (!l.policy.methods().contains(method)) continue;
+            for (String pattern : l.policy.patterns()) {
+                if (PATHS.match(pattern, path)) return l;
+            }
+        }
+        return null;
+    }
+
+    // 통과하면 0, 막히면 다음 토큰까지 기다릴 ms. limit 은 match 가 돌려준 것
+    public long acquire(Limit limit, String key) {
+        Policy policy = limit.policy;
+        long now = (System.nanoTime() - baseNanos) / 1_000_000;
+        TokenBucket bucket = limit.buckets.get(key, k -> new TokenBucket(policy.capacity(), now));
+        long wait = bucket.tryAcquire(now, policy.capacity(), limit.tokensPerMs);
+        (wait == 0 ? limit.allowed : limit.rejected).increment();
+        return wait;
+    }
+
+    public static final class Limit {
+        private final Policy policy;
+        private final double tokensPerMs;
+        private final Cache<String, TokenBucket> buckets;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        private Limit(Policy policy, long maxKeys, MeterRegistry registry) {
+            this.policy = policy;
+            this.tokensPerMs = policy.perMinute() / 60_000d;
+            // 빈 버킷이 가득 찰 때까지의 시간 동안 안 쓰였으면 지워도 결과가 같다
+            Duration refill = Duration.ofMillis((long) Math.ceil(policy.capacity() / tokensPerMs));
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(refill.compareTo(Duration.ofMinutes(1)) < 0 ? Duration.ofMinutes(1) : refill)
+                    .build();
+            this.allowed = Counter.builder("ratelimit.requests")
+                    .description("Requests checked against a rate limit policy")
+                    .tags("policy", policy.name(), "result", "allowed")
+                    .register(registry);
+            this.rejected = Counter.builder("ratelimit.requests")
+                    .description("Requests checked against a rate limit policy")
+                    .tags("policy", policy.name(), "result", "rejected")
+                    .register(registry);
+            Gauge.builder("ratelimit.keys", buckets, Cache::estimatedSize)
+                    .description("Keys currently tracked by a rate limit policy")
+                    .tag("policy", policy.name())
+                    .register(registry);
+        }
+
+        public Policy policy() { return policy; }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.calendar.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 남은 토큰과 마지막 충전 시각을 long 하나에 묶어 CAS 로만 갱신하는 token bucket (락 없음).
+// 상위 40비트: 기준 시각 이후 ms (약 34년), 하위 24비트: 남은 토큰 x 1000 (최대 16,777 토큰)
+final class TokenBucket {
+
+    static final long SCALE = 1000;
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    static final long MAX_CAPACITY = TOKEN_MASK / SCALE;
+
+    private final AtomicLong state;
+
+    TokenBucket(long capacity, long nowMs) {
+        this.state = new AtomicLong(pack(nowMs, capacity * SCALE));
+    }
+
+    // 토큰 하나를 가져가면 0, 모자라면 다음 토큰까지 기다릴 ms. 거절할 때는 상태를 쓰지 않는다
+    long tryAcquire(long nowMs, long capacity, double tokensPerMs) {
+        long capacityMilli = capacity * SCALE;
+        double milliPerMs = tokensPerMs * SCALE;
+        while (true) {
+            long s = state.get();
+            long last = s >>> TOKEN_BITS;
+            long tokens = s & TOKEN_MASK;
+            long added = (long) (Math.max(0, nowMs - last) * milliPerMs);
+
+            long refilled;
+            long refilledAt;
+            if (tokens + added >= capacityMilli) {
+                refilled = capacityMilli;
+                refilledAt = nowMs;
+            } else {
+                // 토큰으로 바꾼 만큼만 시각을 앞당겨서, 짧은 간격의 호출에서 소수점 아래 충전분을 잃지 않는다
+                refilled = tokens + added;
+                refilledAt = last + (long) (added / milliPerMs);
+            }
+            if (refilled < SCALE) return Math.max(1, (long) Math.ceil((SCALE - refilled) / milliPerMs));
+            if (state.compareAndSet(s, pack(refilledAt, refilled - SCALE))) return 0;
+        }
+    }
+
+    private static long pack(long ms, long milliTokens) {
+        return (ms << TOKEN_BITS) | milliTokens;
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.calendar.common.security;
 
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,11 +28,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         if (auth != null && auth.startsWith("Bearer ")) {
             String token = auth.substring(7);
             try {
-                Claims c = jwtService.parse(token);
-                long userId = Long.parseLong(c.getSubject());
-                String email = (String) c.get("email");
-
-                var principal = new UserPrincipal(userId, email);
+                var principal = jwtService.authenticate(token);
                 var authentication = new UsernamePasswordAuthenticationToken(
                         principal,
                         null,
@@ -1,6 +1,10 @@
 package com.example.calendar.common.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -9,20 +13,31 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
+    private record VerifiedToken(UserPrincipal principal, long expiresAtMillis) {}
+
     private final SecretKey key;
     private final String issuer;
     private final long accessMinutes;
+    private final JwtParser parser;
+    // 이미 서명 검증이 끝난 토큰 (키: 토큰의 SHA-256, 만료: 토큰의 exp)
+    private final Cache<String, VerifiedToken> verified;
 
     public JwtService(
             @Value("${app.jwt.secret}") String secret,
             @Value("${app.jwt.issuer}") String issuer,
-            @Value("${app.jwt.access-minutes}") long accessMinutes
+            @Value("${app.jwt.access-minutes}") long accessMinutes,
+            @Value("${app.jwt.verified-cache-size:10000}") long verifiedCacheSize
     ) {
         byte[] bytes;
         try {
@@ -33,6 +48,26 @@ public class JwtService {
         this.key = Keys.hmacShaKeyFor(bytes);
         this.issuer = issuer;
         this.accessMinutes = accessMinutes;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String k, VerifiedToken v, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, v.expiresAtMillis() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String k, VerifiedToken v, long currentTime, long currentDuration) {
+                        return expireAfterCreate(k, v, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String k, VerifiedToken v, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String issue(long userId, String email) {
@@ -49,6 +84,28 @@ public class JwtService {
     }
 
     public Claims parse(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    public UserPrincipal authenticate(String token) {
+        String fingerprint = fingerprint(token);
+        VerifiedToken cached = verified.getIfPresent(fingerprint);
+        if (cached != null) return cached.principal();
+
+        Claims c = parse(token);
+        var principal = new UserPrincipal(Long.parseLong(c.getSubject()), c.get("email", String.class));
+        if (c.getExpiration() != null) {
+            verified.put(fingerprint, new VerifiedToken(principal, c.getExpiration().getTime()));
+        }
+        return principal;
+    }
+
+    private static String fingerprint(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
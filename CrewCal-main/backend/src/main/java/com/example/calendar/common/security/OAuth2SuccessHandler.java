@@ -1,5 +1,6 @@
 package com.example.calendar.common.security;
 
+import com.example.calendar.auth.UserProfileCache;
 import com.example.calendar.auth.UserRepository;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,12 +18,14 @@ import java.io.IOException;
 public class OAuth2SuccessHandler implements org.springframework.security.web.authentication.AuthenticationSuccessHandler {
 
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
     private final JwtService jwtService;
     private final String frontendBaseUrl;
 
-    public OAuth2SuccessHandler(UserRepository userRepository, JwtService jwtService,
+    public OAuth2SuccessHandler(UserRepository userRepository, UserProfileCache userProfileCache, JwtService jwtService,
                                 @Value("${app.frontend.base-url}") String frontendBaseUrl) {
         this.userRepository = userRepository;
+        this.userProfileCache = userProfileCache;
         this.jwtService = jwtService;
         this.frontendBaseUrl = frontendBaseUrl;
     }
@@ -39,6 +42,7 @@ public class OAuth2SuccessHandler implements org.springframework.security.web.au
         String sub = user.getAttribute("sub");
 
         long userId = userRepository.upsertGoogleUser(email, name != null ? name : email, sub);
+        userProfileCache.invalidate(userId);
         String jwt = jwtService.issue(userId, email);
 
         String redirect = UriComponentsBuilder.fromUriString(frontendBaseUrl)
@@ -1,7 +1,12 @@
 package com.example.calendar.common.security;
 
+import com.example.calendar.common.ratelimit.RateLimitFilter;
+import com.example.calendar.common.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
@@ -16,10 +21,15 @@ public class SecurityConfig {
 
     private final JwtService jwtService;
     private final OAuth2SuccessHandler successHandler;
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
 
-    public SecurityConfig(JwtService jwtService, OAuth2SuccessHandler successHandler) {
+    public SecurityConfig(JwtService jwtService, OAuth2SuccessHandler successHandler,
+                          RateLimiter rateLimiter, ObjectMapper objectMapper) {
         this.jwtService = jwtService;
         this.successHandler = successHandler;
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
     }
 
     @Bean
@@ -28,12 +38,20 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(Customizer.withDefaults())
             .authorizeHttpRequests(auth -> auth
+                // SSE 등 async 응답의 재디스패치는 최초 요청에서 이미 인증됨
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/health", "/auth/**", "/invites/**", "/oauth2/**").permitAll()
+                // 구독 피드는 URL 의 토큰으로 인증
+                .requestMatchers(HttpMethod.GET, "/calendars/*/feed.ics").permitAll()
+                // 메트릭 scrape (운영에서는 management.server.port 로 내부 포트에만 두는 것을 권장)
+                .requestMatchers(HttpMethod.GET, "/actuator/health", "/actuator/prometheus").permitAll()
                 .anyRequest().authenticated()
             )
             .oauth2Login(oauth -> oauth.successHandler(successHandler))
             .addFilterBefore(new JwtAuthFilter(jwtService),
-                    org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class);
+                    org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class)
+            // 인증 다음에 두어 사용자 단위 정책이 principal 을 볼 수 있게 한다 (빈으로 등록하면 서블릿 필터로 한 번 더 걸림)
+            .addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper), JwtAuthFilter.class);
 
         return http.build();
     }
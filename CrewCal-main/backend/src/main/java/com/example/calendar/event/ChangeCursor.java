@@ -0,0 +1,39 @@
+package com.example.calendar.event;
+
+import com.example.calendar.common.exception.ApiException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// /events/changes 의 (change_xid, id) 위치. KeysetCursor 와 구분되도록 앞에 "x" 를 붙인다
+public record ChangeCursor(long xid, long id) {
+
+    public String encode() {
+        String raw = "x" + xid + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChangeCursor decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+        // updated_at 기반이던 이전 형식 ("micros:id"): 위치를 옮길 수 없으니 다시 받게 한다
+        if (raw.matches("-?\\d+:\\d+")) throw resyncRequired();
+        try {
+            int sep = raw.indexOf(':');
+            if (!raw.startsWith("x") || sep < 0) throw new IllegalArgumentException();
+            return new ChangeCursor(Long.parseLong(raw.substring(1, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    // 410: 이 커서 이후의 변경을 더 이상 이어서 줄 수 없다. 클라이언트는 /events 로 전체를 다시 받고 since 없이 새 커서를 받는다
+    public static ApiException resyncRequired() {
+        return new ApiException(HttpStatus.GONE, "Cursor expired; resync required");
+    }
+}
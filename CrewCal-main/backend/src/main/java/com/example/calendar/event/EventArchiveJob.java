@@ -0,0 +1,87 @@
+package com.example.calendar.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 1) 앞으로 months-ahead 개월치 월 파티션을 미리 만든다 (기동 시 + 매일)
+// 2) 오래 전에 끝났거나 지워진 행을 chunk 단위(트랜잭션 하나씩)로 events_archive 로 옮기고 빈 옛 파티션을 지운다
+@Component
+public class EventArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(EventArchiveJob.class);
+
+    private final EventArchiveRepository repository;
+    private final TransactionTemplate tx;
+    private final int monthsAhead;
+    private final boolean archiveEnabled;
+    private final int retentionDays;
+    private final int tombstoneDays;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final AtomicLong archived = new AtomicLong();
+
+    public EventArchiveJob(EventArchiveRepository repository,
+                           TransactionTemplate tx,
+                           @Value("${app.events.partitions.months-ahead:12}") int monthsAhead,
+                           @Value("${app.events.archive.enabled:true}") boolean archiveEnabled,
+                           @Value("${app.events.archive.retention-days:730}") int retentionDays,
+                           @Value("${app.events.archive.tombstone-days:30}") int tombstoneDays,
+                           @Value("${app.events.archive.chunk-size:2000}") int chunkSize,
+                           @Value("${app.events.archive.max-chunks:500}") int maxChunks) {
+        this.repository = repository;
+        this.tx = tx;
+        this.monthsAhead = monthsAhead;
+        this.archiveEnabled = archiveEnabled;
+        this.retentionDays = retentionDays;
+        this.tombstoneDays = tombstoneDays;
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${app.events.partitions.cron:0 7 3 * * *}", zone = "UTC")
+    public void ensurePartitions() {
+        int created = repository.ensurePartitions(monthsAhead);
+        if (created > 0) log.info("Created {} event partitions", created);
+    }
+
+    @Scheduled(cron = "${app.events.archive.cron:0 37 3 * * *}", zone = "UTC")
+    public void archive() {
+        if (!archiveEnabled) return;
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        OffsetDateTime endedBefore = now.minusDays(retentionDays);
+        OffsetDateTime deletedBefore = now.minusDays(tombstoneDays);
+
+        // 한 chunk 가 한 트랜잭션이라 잠금과 WAL 이 chunk 크기로 제한된다. 한 번에 다 못 옮기면 다음 실행에서 이어간다
+        long total = 0;
+        int chunks = 0;
+        Integer n;
+        do {
+            n = tx.execute(status -> repository.archiveChunk(endedBefore, deletedBefore, chunkSize));
+            total += n == null ? 0 : n;
+            chunks++;
+        } while (n != null && n == chunkSize && chunks < maxChunks);
+        archived.addAndGet(total);
+
+        Integer dropped = tx.execute(status -> repository.dropEmptyPartitions(endedBefore));
+        if (total > 0 || (dropped != null && dropped > 0)) {
+            log.info("Archived {} events in {} chunks, dropped {} empty partitions", total, chunks, dropped);
+        }
+    }
+
+    public long archivedCount() { return archived.get(); }
+}
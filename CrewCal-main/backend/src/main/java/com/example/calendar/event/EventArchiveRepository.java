@@ -0,0 +1,68 @@
+package com.example.calendar.event;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+
+// events 파티션 관리와 아카이브 (V12 의 ensure_event_partitions / drop_empty_event_partitions 를 부른다)
+@Repository
+public class EventArchiveRepository {
+    private final JdbcTemplate jdbc;
+
+    public EventArchiveRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
+
+    // 이번 달부터 monthsAhead 개월 뒤까지 없는 월 파티션을 만든다
+    public int ensurePartitions(int monthsAhead) {
+        Integer created = jdbc.queryForObject(
+                "select ensure_event_partitions((now() at time zone 'UTC')::date, ?)", Integer.class, monthsAhead);
+        return created == null ? 0 : created;
+    }
+
+    public int dropEmptyPartitions(OffsetDateTime before) {
+        Integer dropped = jdbc.queryForObject("select drop_empty_event_partitions(?)", Integer.class, before);
+        return dropped == null ? 0 : dropped;
+    }
+
+    // 아카이브 대상:
+    //  - deletedBefore 전에 지운 행 (단, 살아 있는 시리즈의 취소된 회차는 EXDATE 역할이라 남긴다)
+    //  - endedBefore 전에 끝난 일반 일정, 마지막 회차가 endedBefore 전에 끝난 시리즈
+    //  - 시리즈가 이미 아카이브된 예외 행
+    // 한 문장 안에서 옮기고, 알림/회차 키를 지우고, 캘린더 version 을 올린다 (id 순으로 잠가 교착을 피한다).
+    // 옮긴 tombstone 의 change_xid 는 calendars.changes_horizon 에 남겨 그 이전 변경 커서를 410 으로 막는다 (V15).
+    // events_archive 에 같은 id 가 이미 있으면 덮거나 건너뛰지 않고 chunk 전체를 실패시킨다 (행을 조용히 잃지 않도록)
+    private static final String ARCHIVE_CHUNK_SQL =
+            "with picked as (" +
+            "  select e.id, e.start_at from events e " +
+            "  where (e.deleted_at < ? and (e.series_id is null or not exists (" +
+            "          select 1 from events s where s.id = e.series_id and s.deleted_at is null))) " +
+            "     or (e.deleted_at is null and e.rrule is null and e.series_id is null and e.end_at < ?) " +
+            "     or (e.deleted_at is null and e.rrule is not null and e.recur_until + (e.end_at - e.start_at) < ?) " +
+            "     or (e.series_id is not null and not exists (select 1 from events s where s.id = e.series_id)) " +
+            "  limit ? for update skip locked), " +
+            "moved as (" +
+            "  delete from events e using picked p where e.id = p.id and e.start_at = p.start_at returning e.*), " +
+            "archived as (" +
+            "  insert into events_archive (id, calendar_id, title, start_at, end_at, all_day, note, created_by, updated_by, " +
+            "  created_at, updated_at, deleted_at, rrule, recur_until, series_id, original_start_at) " +
+            "  select id, calendar_id, title, start_at, end_at, all_day, note, created_by, updated_by, " +
+            "  created_at, updated_at, deleted_at, rrule, recur_until, series_id, original_start_at from moved), " +
+            "reminders as (delete from event_reminders where event_id in (select id from moved)), " +
+            "keys as (" +
+            "  delete from event_occurrences k using moved m " +
+            "  where k.series_id = m.series_id and k.original_start_at = m.original_start_at), " +
+            "bump as (" +
+            "  update calendars c set version = version + 1, updated_at = now(), " +
+            "  changes_horizon = greatest(c.changes_horizon, (" +
+            "    select max(m.change_xid) from moved m where m.calendar_id = c.id and m.deleted_at is not null)) " +
+            "  where c.id in (" +
+            "    select id from calendars where id in (select calendar_id from moved) order by id for update)) " +
+            "select count(*) from moved";
+
+    // 옮긴 행 수
+    public int archiveChunk(OffsetDateTime endedBefore, OffsetDateTime deletedBefore, int limit) {
+        Integer moved = jdbc.queryForObject(ARCHIVE_CHUNK_SQL, Integer.class,
+                deletedBefore, endedBefore, endedBefore, limit);
+        return moved == null ? 0 : moved;
+    }
+}
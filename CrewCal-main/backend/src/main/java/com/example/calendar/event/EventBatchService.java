@@ -0,0 +1,147 @@
+package com.example.calendar.event;
+
+import com.example.calendar.calendar.CalendarChange;
+import com.example.calendar.calendar.CalendarRepository;
+import com.example.calendar.calendar.CalendarRole;
+import com.example.calendar.common.exception.ApiException;
+import com.example.calendar.common.security.UserPrincipal;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// 여러 건의 생성/수정/삭제를 한 트랜잭션에서 JDBC batch로 처리한다.
+// 검증/권한에 실패한 항목은 건너뛰고 항목별 결과로 돌려준다.
+@Service
+public class EventBatchService {
+
+    private final EventRepository eventRepository;
+    private final ReminderRepository reminderRepository;
+    private final CalendarRepository calendarRepository;
+    private final ApplicationEventPublisher events;
+
+    public EventBatchService(EventRepository eventRepository, ReminderRepository reminderRepository,
+                             CalendarRepository calendarRepository, ApplicationEventPublisher events) {
+        this.eventRepository = eventRepository;
+        this.reminderRepository = reminderRepository;
+        this.calendarRepository = calendarRepository;
+        this.events = events;
+    }
+
+    @Transactional
+    public List<EventDtos.BatchResult> apply(UserPrincipal principal, List<EventDtos.BatchOp> ops) {
+        EventDtos.BatchResult[] results = new EventDtos.BatchResult[ops.size()];
+
+        List<Long> targetIds = ops.stream()
+                .filter(op -> !"CREATE".equals(op.op()) && op.eventId() != null)
+                .map(EventDtos.BatchOp::eventId)
+                .toList();
+        Map<Long, EventRepository.Target> targetOf = eventRepository.findTargets(targetIds);
+        // 건드리는 캘린더의 권한을 한 번에 읽어 둔다 (캘린더 수와 무관하게 문장 하나)
+        Set<Long> calendarIds = new HashSet<>();
+        for (var op : ops) if ("CREATE".equals(op.op()) && op.calendarId() != null) calendarIds.add(op.calendarId());
+        for (var t : targetOf.values()) calendarIds.add(t.calendarId());
+        Map<Long, CalendarRole> roles = calendarRepository.rolesOf(calendarIds, principal.userId());
+
+        List<Integer> createIdx = new ArrayList<>();
+        List<EventRepository.EventRecord> creates = new ArrayList<>();
+        List<EventRepository.EventPatch> updates = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        Map<Long, Integer> reminders = new LinkedHashMap<>();
+        List<CalendarChange> changes = new ArrayList<>();
+
+        for (int i = 0; i < ops.size(); i++) {
+            var op = ops.get(i);
+            try {
+                switch (op.op()) {
+                    case "CREATE" -> {
+                        if (op.calendarId() == null) throw badRequest("calendarId is required");
+                        requireEditor(roles, op.calendarId());
+                        if (op.title() == null || op.title().isBlank()) throw badRequest("title is required");
+                        if (op.startAt() == null || op.endAt() == null) throw badRequest("startAt and endAt are required");
+                        OffsetDateTime start = EventService.parseIso(op.startAt());
+                        OffsetDateTime end = EventService.parseIso(op.endAt());
+                        if (!end.isAfter(start)) throw badRequest("endAt must be after startAt");
+                        EventService.requireMaxSpan(start, end);
+
+                        createIdx.add(i);
+                        creates.add(new EventRepository.EventRecord(0, op.calendarId(), op.title(), start, end,
+                                Boolean.TRUE.equals(op.allDay()), op.note(), null, null, null));
+                    }
+                    case "UPDATE", "DELETE" -> {
+                        var target = op.eventId() == null ? null : targetOf.get(op.eventId());
+                        if (target == null) throw new ApiException(HttpStatus.NOT_FOUND, "Event not found (or already used in this batch)");
+                        long calendarId = target.calendarId();
+                        requireEditor(roles, calendarId);
+
+                        if ("DELETE".equals(op.op())) {
+                            deletes.add(op.eventId());
+                            reminders.put(op.eventId(), null);
+                            changes.add(CalendarChange.event(calendarId, op.eventId(), "DELETED"));
+                        } else {
+                            // 반복 범위/알림 기준 시각을 다시 계산해야 하므로 시리즈 수정은 단건 API 로만
+                            if (target.recurring()) throw badRequest("Recurring series must be updated with PATCH /events/{id}");
+                            OffsetDateTime start = op.startAt() != null ? EventService.parseIso(op.startAt()) : null;
+                            OffsetDateTime end = op.endAt() != null ? EventService.parseIso(op.endAt()) : null;
+                            // 한쪽만 바꾸면 나머지는 지금 값과 합쳐서 단건 PATCH 와 같은 조건으로 본다
+                            OffsetDateTime mergedStart = start != null ? start : target.startAt();
+                            OffsetDateTime mergedEnd = end != null ? end : target.endAt();
+                            if (!mergedEnd.isAfter(mergedStart)) throw badRequest("endAt must be after startAt");
+                            EventService.requireMaxSpan(mergedStart, mergedEnd);
+                            updates.add(new EventRepository.EventPatch(op.eventId(), op.title(), start, end, op.allDay(), op.note()));
+                            reminders.put(op.eventId(), op.reminderMinutesBefore());
+                            changes.add(CalendarChange.event(calendarId, op.eventId(), "UPDATED"));
+                        }
+                        // 같은 이벤트를 한 batch에서 두 번 건드리지 않도록 한다
+                        targetOf.remove(op.eventId());
+                        results[i] = new EventDtos.BatchResult(i, "OK", op.eventId(), null);
+                    }
+                    default -> throw badRequest("Unknown op: " + op.op());
+                }
+            } catch (ApiException e) {
+                results[i] = new EventDtos.BatchResult(i, "ERROR", op.eventId(), e.getMessage());
+            }
+        }
+
+        if (!creates.isEmpty()) {
+            List<Long> ids = eventRepository.nextIds(creates.size());
+            for (int k = 0; k < creates.size(); k++) {
+                var c = creates.get(k);
+                long id = ids.get(k);
+                int i = createIdx.get(k);
+                creates.set(k, new EventRepository.EventRecord(id, c.calendarId(), c.title(), c.startAt(), c.endAt(), c.allDay(), c.note(), null, null, null));
+                reminders.put(id, ops.get(i).reminderMinutesBefore());
+                changes.add(CalendarChange.event(c.calendarId(), id, "CREATED"));
+                results[i] = new EventDtos.BatchResult(i, "OK", id, null);
+            }
+        }
+
+        eventRepository.batchCreate(creates, principal.userId());
+        eventRepository.batchUpdate(updates, principal.userId());
+        eventRepository.softDeleteAll(deletes, principal.userId());
+        reminderRepository.replaceAll(reminders);
+
+        // 트랜잭션 커밋 후에 구독자에게 전달된다
+        changes.forEach(events::publishEvent);
+        return List.of(results);
+    }
+
+    private static void requireEditor(Map<Long, CalendarRole> roles, long calendarId) {
+        CalendarRole role = roles.get(calendarId);
+        if (!(role == CalendarRole.OWNER || role == CalendarRole.EDITOR)) {
+            throw new ApiException(HttpStatus.FORBIDDEN, "Editor permission required");
+        }
+    }
+
+    private static ApiException badRequest(String message) {
+        return new ApiException(HttpStatus.BAD_REQUEST, message);
+    }
+}
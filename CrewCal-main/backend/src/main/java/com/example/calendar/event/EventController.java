@@ -1,10 +1,19 @@
 package com.example.calendar.event;
 
+import com.example.calendar.common.metrics.StatementBudget;
 import com.example.calendar.common.security.AuthUtil;
 import com.example.calendar.common.security.UserPrincipal;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -12,19 +21,88 @@ import java.util.stream.Collectors;
 
 @RestController
 public class EventController {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final EventService eventService;
+    private final EventBatchService eventBatchService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter itemWriter;
 
-    public EventController(EventService eventService) { this.eventService = eventService; }
+    public EventController(EventService eventService, EventBatchService eventBatchService, ObjectMapper objectMapper) {
+        this.eventService = eventService;
+        this.eventBatchService = eventBatchService;
+        this.objectMapper = objectMapper;
+        this.itemWriter = objectMapper.writerFor(EventDtos.EventItem.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
 
+    // ETag(캘린더 version) + 단일 일정 + 반복 시리즈. 캘린더 수와 무관
+    @StatementBudget(3)
     @GetMapping("/events")
-    public List<EventDtos.EventItem> list(@RequestParam String calendarIds, @RequestParam String from, @RequestParam String to) {
+    public List<EventDtos.EventItem> list(@RequestParam String calendarIds, @RequestParam String from, @RequestParam String to,
+                                          ServletWebRequest request) {
         UserPrincipal p = AuthUtil.requirePrincipal();
-        List<Long> ids = Arrays.stream(calendarIds.split(","))
-                .map(String::trim).filter(s -> !s.isEmpty())
-                .map(Long::parseLong).collect(Collectors.toList());
+        List<Long> ids = parseIds(calendarIds);
+        if (notModified(request, eventService.versionTag(p, ids))) return null;
         return eventService.list(p, ids, from, to);
     }
 
+    // agenda 화면용: from (또는 cursor) 이후에 시작하는 일정을 (start_at, id) 순으로 limit 개씩
+    @StatementBudget(3)
+    @GetMapping(value = "/events", params = "limit")
+    public EventDtos.EventPage page(@RequestParam String calendarIds,
+                                    @RequestParam(required = false) String from,
+                                    @RequestParam(required = false) String to,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam int limit,
+                                    ServletWebRequest request) {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        List<Long> ids = parseIds(calendarIds);
+        if (notModified(request, eventService.versionTag(p, ids))) return null;
+        return eventService.page(p, ids, from, to, cursor, limit);
+    }
+
+    // Accept: application/x-ndjson 이면 한 줄에 EventItem 하나씩 바로 응답 스트림에 쓴다
+    @StatementBudget(2)
+    @GetMapping(value = "/events", produces = NDJSON)
+    public void stream(@RequestParam String calendarIds, @RequestParam String from, @RequestParam String to,
+                       HttpServletResponse response) throws IOException {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        List<Long> ids = parseIds(calendarIds);
+        // 검증은 응답 스트림을 열기 전에 끝낸다. 그래야 ApiException 이 빈 200 이 아니라 4xx 본문으로 나간다
+        EventService.Window window = EventService.window(from, to);
+
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        // AUTO_CLOSE_TARGET 을 끄면 스트리밍 도중 예외가 나도 generator 가 서블릿 스트림을 닫아 응답을 확정하지 않는다
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(response.getOutputStream())
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            gen.setRootValueSeparator(null);
+            eventService.stream(p, ids, window, item -> {
+                try {
+                    itemWriter.writeValue(gen, item);
+                    gen.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    // since 이후의 변경(삭제 포함)을 커밋된 순서와 무관하게 빠짐없이 준다. since 가 없으면 지금 시점의 커서만 돌려준다.
+    // 410 Gone: 이어서 줄 수 없는 커서. 이전 형식이거나, 커서 이후의 삭제가 이미 아카이브된 경우
+    // (지운 일정은 app.events.archive.tombstone-days, 기본 30일 뒤 아카이브된다). 그보다 오래 폴링하지 않은 클라이언트는
+    // since 없이 새 커서를 받고 /events 로 전체를 다시 받아야 한다
+    @StatementBudget(2)
+    @GetMapping("/events/changes")
+    public EventDtos.EventChanges changes(@RequestParam String calendarIds,
+                                          @RequestParam(required = false) String since,
+                                          @RequestParam(defaultValue = "500") int limit) {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        return eventService.changes(p, parseIds(calendarIds), since, limit);
+    }
+
+    @StatementBudget(3)
     @PostMapping("/events")
     public Map<String, Object> create(@Valid @RequestBody EventDtos.CreateEventRequest req) {
         UserPrincipal p = AuthUtil.requirePrincipal();
@@ -32,15 +110,54 @@ public class EventController {
         return Map.of("id", id);
     }
 
+    // 대상 조회 + 권한 + id 발급 + 생성/수정(각각 batch + version) + 삭제 + 알림(삭제 + batch upsert). 항목 수와 무관
+    @StatementBudget(10)
+    @PostMapping("/events:batch")
+    public EventDtos.BatchResponse batch(@Valid @RequestBody EventDtos.BatchRequest req) {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        return new EventDtos.BatchResponse(eventBatchService.apply(p, req.ops()));
+    }
+
+    @StatementBudget(5)
     @PatchMapping("/events/{eventId}")
     public void update(@PathVariable long eventId, @RequestBody EventDtos.UpdateEventRequest req) {
         UserPrincipal p = AuthUtil.requirePrincipal();
         eventService.update(p, eventId, req);
     }
 
+    @StatementBudget(4)
     @DeleteMapping("/events/{eventId}")
     public void delete(@PathVariable long eventId) {
         UserPrincipal p = AuthUtil.requirePrincipal();
         eventService.delete(p, eventId);
     }
+
+    // 반복 일정의 한 회차만 수정/취소 (at = 원래 회차 시작 시각, ISO-8601)
+    @StatementBudget(5)
+    @PatchMapping("/events/{eventId}/occurrences")
+    public Map<String, Object> updateOccurrence(@PathVariable long eventId, @RequestParam String at,
+                                                @RequestBody EventDtos.UpdateEventRequest req) {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        long id = eventService.updateOccurrence(p, eventId, at, req);
+        return Map.of("id", id);
+    }
+
+    @StatementBudget(4)
+    @DeleteMapping("/events/{eventId}/occurrences")
+    public void deleteOccurrence(@PathVariable long eventId, @RequestParam String at) {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        eventService.deleteOccurrence(p, eventId, at);
+    }
+
+    // 요청한 캘린더들의 version 이 그대로면 events 를 읽지 않고 304 (응답은 URL 마다 캐시되므로 구간은 태그에 넣지 않는다)
+    private static boolean notModified(ServletWebRequest request, String versionTag) {
+        request.getResponse().setHeader("Cache-Control", "private, no-cache");
+        return request.checkNotModified(versionTag);
+    }
+
+    private static List<Long> parseIds(String calendarIds) {
+        return Arrays.stream(calendarIds.split(","))
+                .map(String::trim).filter(s -> !s.isEmpty())
+                .map(Long::parseLong).collect(Collectors.toList());
+    }
 }
@@ -1,7 +1,12 @@
 package com.example.calendar.event;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
 
 public class EventDtos {
 
@@ -13,7 +18,30 @@ public class EventDtos {
             String endAt,
             boolean allDay,
             String note,
-            Integer reminderMinutesBefore
+            Integer reminderMinutesBefore,
+            // 반복 일정의 회차면 seriesId/recurrenceId(원래 회차 시작 시각)/rrule, 예외 행이면 seriesId/recurrenceId
+            Long seriesId,
+            String recurrenceId,
+            String rrule
+    ) {}
+
+    // nextCursor 가 null 이면 마지막 페이지
+    public record EventPage(
+            List<EventItem> items,
+            String nextCursor
+    ) {}
+
+    public record EventChange(
+            long id,
+            long calendarId,
+            boolean deleted,
+            EventItem event
+    ) {}
+
+    public record EventChanges(
+            List<EventChange> changes,
+            String cursor,
+            boolean hasMore
     ) {}
 
     public record CreateEventRequest(
@@ -23,10 +51,26 @@ public class EventDtos {
             @NotBlank String endAt,
             boolean allDay,
             String note,
-            Integer reminderMinutesBefore
+            Integer reminderMinutesBefore,
+            String rrule
     ) {}
 
+    // rrule 은 바꿀 때만 보낸다 (반복 해제는 지원하지 않음 - 시리즈를 삭제)
     public record UpdateEventRequest(
+            String title,
+            String startAt,
+            String endAt,
+            Boolean allDay,
+            String note,
+            Integer reminderMinutesBefore,
+            String rrule
+    ) {}
+
+    // op: CREATE (calendarId 필수) / UPDATE, DELETE (eventId 필수)
+    public record BatchOp(
+            @NotBlank String op,
+            Long eventId,
+            Long calendarId,
             String title,
             String startAt,
             String endAt,
@@ -34,4 +78,19 @@ public class EventDtos {
             String note,
             Integer reminderMinutesBefore
     ) {}
+
+    public record BatchRequest(
+            @NotEmpty @Size(max = 1000) List<@Valid @NotNull BatchOp> ops
+    ) {}
+
+    public record BatchResult(
+            int index,
+            String status,
+            Long id,
+            String error
+    ) {}
+
+    public record BatchResponse(
+            List<BatchResult> results
+    ) {}
 }
@@ -1,11 +1,25 @@
 package com.example.calendar.event;
 
+import com.example.calendar.calendar.CalendarRole;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Repository
 public class EventRepository {
@@ -13,6 +27,16 @@ public class EventRepository {
 
     public EventRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // 일정 하나의 최대 길이 (V12 chk_events_span). 구간 조회에 start_at > from - MAX_SPAN 을 붙여
+    // start_at 월 파티션 중 구간 앞쪽의 것들을 건너뛸 수 있게 한다
+    public static final Duration MAX_SPAN = Duration.ofDays(366);
+
+    // 이벤트를 바꾸는 문장은 CTE 로 묶어서 같은 문장 안에서 calendars.version 을 올린다
+    private static final String BUMP_CHANGED =
+            " update calendars set version = version + 1, updated_at = now() where id in (select calendar_id from changed)";
+
     public record EventRecord(
             long id,
             long calendarId,
@@ -20,7 +44,10 @@ public class EventRepository {
             OffsetDateTime startAt,
             OffsetDateTime endAt,
             boolean allDay,
-            String note
+            String note,
+            String rrule,
+            OffsetDateTime recurUntil,
+            Long seriesId
     ) {}
 
     private static final RowMapper<EventRecord> EVENT_ROW = (rs, i) -> new EventRecord(
@@ -30,45 +57,401 @@ public class EventRepository {
             rs.getObject("start_at", OffsetDateTime.class),
             rs.getObject("end_at", OffsetDateTime.class),
             rs.getBoolean("all_day"),
-            rs.getString("note")
+            rs.getString("note"),
+            rs.getString("rrule"),
+            rs.getObject("recur_until", OffsetDateTime.class),
+            rs.getObject("series_id", Long.class)
     );
 
-    public List<EventRecord> list(long calendarId, OffsetDateTime from, OffsetDateTime to) {
-        return jdbc.query(
-                "select id, calendar_id, title, start_at, end_at, all_day, note " +
-                "from events where calendar_id=? and deleted_at is null and start_at < ? and end_at > ? " +
-                "order by start_at asc",
-                EVENT_ROW,
-                calendarId, to, from
+    // FREEBUSY 멤버에게는 제목/메모/알림을 마스킹해서 내려준다
+    private static final RowMapper<EventDtos.EventItem> VISIBLE_ITEM = (rs, i) -> {
+        boolean busyOnly = CalendarRole.valueOf(rs.getString("role")) == CalendarRole.FREEBUSY;
+        int minutes = rs.getInt("minutes_before");
+        Integer reminder = rs.wasNull() || busyOnly ? null : minutes;
+        OffsetDateTime originalStart = rs.getObject("original_start_at", OffsetDateTime.class);
+        return new EventDtos.EventItem(
+                rs.getLong("id"),
+                rs.getLong("calendar_id"),
+                busyOnly ? "Busy" : rs.getString("title"),
+                rs.getObject("start_at", OffsetDateTime.class).toString(),
+                rs.getObject("end_at", OffsetDateTime.class).toString(),
+                rs.getBoolean("all_day"),
+                busyOnly ? null : rs.getString("note"),
+                reminder,
+                rs.getObject("series_id", Long.class),
+                originalStart == null ? null : originalStart.toString(),
+                rs.getString("rrule")
+        );
+    };
+
+    private static final String ITEM_COLUMNS =
+            "e.id, e.calendar_id, e.title, e.start_at, e.end_at, e.all_day, e.note, e.series_id, e.original_start_at, e.rrule, " +
+            "cm.role, r.minutes_before ";
+
+    // 반복 시리즈 행은 제외 (회차는 listSeries 로 따로 펼친다). 예외 행은 일반 이벤트처럼 나온다.
+    // 겹침은 idx_events_live_span 의 span && 로 거르고, start_at 조건은 파티션을 거르는 용도로 남긴다
+    private static final String VISIBLE_SQL =
+            "select " + ITEM_COLUMNS +
+            "from events e " +
+            "join calendar_members cm on cm.calendar_id = e.calendar_id and cm.user_id = ? " +
+            "left join event_reminders r on r.event_id = e.id " +
+            "where e.calendar_id = any(?) and e.deleted_at is null and e.rrule is null " +
+            "and e.span && tstzrange(?, ?, '[)') and e.start_at < ? and e.start_at > ? " +
+            "order by e.start_at asc, e.id asc";
+
+    // 요청한 캘린더 중 멤버인 것만, 권한/알림까지 한 번의 쿼리로 조회
+    public List<EventDtos.EventItem> listVisible(long userId, List<Long> calendarIds, OffsetDateTime from, OffsetDateTime to) {
+        return jdbc.query(visibleStatement(userId, calendarIds, from, to, 0), VISIBLE_ITEM);
+    }
+
+    // 결과를 메모리에 모으지 않고 커서로 한 행씩 넘긴다 (PostgreSQL은 트랜잭션 안에서만 fetch size가 적용됨)
+    public void streamVisible(long userId, List<Long> calendarIds, OffsetDateTime from, OffsetDateTime to,
+                              Consumer<EventDtos.EventItem> sink) {
+        jdbc.query(visibleStatement(userId, calendarIds, from, to, STREAM_FETCH_SIZE),
+                (RowCallbackHandler) rs -> sink.accept(VISIBLE_ITEM.mapRow(rs, rs.getRow())));
+    }
+
+    private PreparedStatementCreator visibleStatement(long userId, List<Long> calendarIds,
+                                                      OffsetDateTime from, OffsetDateTime to, int fetchSize) {
+        return con -> {
+            PreparedStatement ps = con.prepareStatement(VISIBLE_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if (fetchSize > 0) ps.setFetchSize(fetchSize);
+            ps.setLong(1, userId);
+            ps.setArray(2, con.createArrayOf("bigint", calendarIds.toArray()));
+            ps.setObject(3, from);
+            ps.setObject(4, to);
+            ps.setObject(5, to);
+            ps.setObject(6, from.minus(MAX_SPAN));
+            return ps;
+        };
+    }
+
+    // 캘린더마다 (start_at, id) > after 인 행을 limit 개까지만 범위 스캔하고 합친다.
+    // calendar_id = any(?) 로 한 번에 정렬하면 캘린더별 순서를 이어 붙일 수 없어 구간 전체를 읽고 정렬하게 된다
+    private static final String PAGE_SQL =
+            "select " + ITEM_COLUMNS +
+            "from unnest(?) as c(calendar_id) " +
+            "cross join lateral (" +
+            "  select e0.* from events e0 " +
+            "  where e0.calendar_id = c.calendar_id and e0.deleted_at is null and e0.rrule is null " +
+            "    and (e0.start_at, e0.id) > (?, ?) and e0.start_at >= ? and e0.start_at < ? " +
+            "  order by e0.start_at asc, e0.id asc limit ?" +
+            ") e " +
+            "join calendar_members cm on cm.calendar_id = e.calendar_id and cm.user_id = ? " +
+            "left join event_reminders r on r.event_id = e.id " +
+            "order by e.start_at asc, e.id asc limit ?";
+
+    public List<EventDtos.EventItem> pageVisible(long userId, List<Long> calendarIds, KeysetCursor after,
+                                                 OffsetDateTime before, int limit) {
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(PAGE_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", calendarIds.toArray()));
+            ps.setObject(2, after.at());
+            ps.setLong(3, after.id());
+            // row 비교만으로는 파티션을 거르지 못해서 같은 하한을 start_at 에 한 번 더 건다
+            ps.setObject(4, after.at());
+            ps.setObject(5, before);
+            ps.setInt(6, limit);
+            ps.setLong(7, userId);
+            ps.setInt(8, limit);
+            return ps;
+        }, VISIBLE_ITEM);
+    }
+
+    // overridden: 구간 안에서 예외 행(수정/취소)으로 대체된 회차의 원래 시작 시각 (epoch second, 정렬됨)
+    public record SeriesRow(
+            EventDtos.EventItem template,
+            OffsetDateTime startAt,
+            OffsetDateTime endAt,
+            OffsetDateTime recurUntil,
+            long[] overridden
+    ) {}
+
+    private static final String SERIES_SQL =
+            "select " + ITEM_COLUMNS + ", e.recur_until, " +
+            "array(select x.original_start_at from events x where x.series_id = e.id " +
+            "  and x.original_start_at < ? and x.original_start_at + (e.end_at - e.start_at) > ?) as overridden " +
+            "from events e " +
+            "join calendar_members cm on cm.calendar_id = e.calendar_id and cm.user_id = ? " +
+            "left join event_reminders r on r.event_id = e.id " +
+            "where e.calendar_id = any(?) and e.deleted_at is null and e.rrule is not null and e.start_at < ? " +
+            "and (e.recur_until is null or e.recur_until + (e.end_at - e.start_at) > ?)";
+
+    // 구간과 겹칠 수 있는 반복 시리즈 (시리즈 수만큼의 행, 회차 수와 무관)
+    public List<SeriesRow> listSeries(long userId, List<Long> calendarIds, OffsetDateTime from, OffsetDateTime to) {
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SERIES_SQL);
+            ps.setObject(1, to);
+            ps.setObject(2, from);
+            ps.setLong(3, userId);
+            ps.setArray(4, con.createArrayOf("bigint", calendarIds.toArray()));
+            ps.setObject(5, to);
+            ps.setObject(6, from);
+            return ps;
+        }, (rs, i) -> new SeriesRow(
+                VISIBLE_ITEM.mapRow(rs, i),
+                rs.getObject("start_at", OffsetDateTime.class),
+                rs.getObject("end_at", OffsetDateTime.class),
+                rs.getObject("recur_until", OffsetDateTime.class),
+                epochSeconds(rs.getArray("overridden"))
+        ));
+    }
+
+    private static long[] epochSeconds(Array array) throws SQLException {
+        if (array == null) return new long[0];
+        Object[] values = (Object[]) array.getArray();
+        long[] out = new long[values.length];
+        for (int k = 0; k < values.length; k++) {
+            out[k] = ((Timestamp) values[k]).toInstant().getEpochSecond();
+        }
+        Arrays.sort(out);
+        return out;
+    }
+
+    public record ChangeRow(EventDtos.EventChange change, long xid) {}
+
+    private static final RowMapper<ChangeRow> CHANGE_ROW = (rs, i) -> {
+        boolean deleted = rs.getObject("deleted_at", OffsetDateTime.class) != null;
+        var change = new EventDtos.EventChange(
+                rs.getLong("id"),
+                rs.getLong("calendar_id"),
+                deleted,
+                deleted ? null : VISIBLE_ITEM.mapRow(rs, i)
         );
+        return new ChangeRow(change, Long.parseLong(rs.getString("change_xid")));
+    };
+
+    // 진행 중인 트랜잭션 중 가장 오래된 것의 id. 이보다 작은 change_xid 를 쓴 트랜잭션은 모두 끝났으므로
+    // 그 아래로는 더 이상 행이 생기지 않는다 (V14). 커밋 순서와 xid 순서가 달라도 빠지는 변경이 없다
+    private static final String SETTLED = "pg_snapshot_xmin(pg_current_snapshot())";
+
+    // 삭제(tombstone) 포함, (change_xid, id) 가 after 이후인 변경분
+    public List<ChangeRow> listChanges(long userId, List<Long> calendarIds, ChangeCursor after, int limit) {
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select " + ITEM_COLUMNS + ", e.change_xid::text as change_xid, e.deleted_at " +
+                    "from events e " +
+                    "join calendar_members cm on cm.calendar_id = e.calendar_id and cm.user_id = ? " +
+                    "left join event_reminders r on r.event_id = e.id " +
+                    "where e.calendar_id = any(?) and (e.change_xid, e.id) > (?::text::xid8, ?) " +
+                    "and e.change_xid < " + SETTLED + " " +
+                    "order by e.change_xid asc, e.id asc limit ?");
+            ps.setLong(1, userId);
+            ps.setArray(2, con.createArrayOf("bigint", calendarIds.toArray()));
+            ps.setLong(3, after.xid());
+            ps.setLong(4, after.id());
+            ps.setInt(5, limit);
+            return ps;
+        }, CHANGE_ROW);
+    }
+
+    // 커서 이후의 tombstone 이 이미 아카이브되어 빠졌는지 (V15 calendars.changes_horizon)
+    public boolean changesExpired(long userId, List<Long> calendarIds, ChangeCursor after) {
+        Boolean expired = jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select exists(select 1 from calendars c " +
+                    "join calendar_members cm on cm.calendar_id = c.id and cm.user_id = ? " +
+                    "where c.id = any(?) and c.changes_horizon >= ?::text::xid8)");
+            ps.setLong(1, userId);
+            ps.setArray(2, con.createArrayOf("bigint", calendarIds.toArray()));
+            ps.setLong(3, after.xid());
+            return ps;
+        }, rs -> rs.next() && rs.getBoolean(1));
+        return Boolean.TRUE.equals(expired);
+    }
+
+    // 지금 시작하는 클라이언트의 커서: 아직 끝나지 않은 트랜잭션의 변경부터 받는다
+    public ChangeCursor changesWatermark() {
+        return new ChangeCursor(Long.parseLong(jdbc.queryForObject("select " + SETTLED + "::text", String.class)), 0);
     }
 
     public EventRecord get(long eventId) {
         return jdbc.queryForObject(
-                "select id, calendar_id, title, start_at, end_at, all_day, note from events where id=? and deleted_at is null",
+                "select id, calendar_id, title, start_at, end_at, all_day, note, rrule, recur_until, series_id " +
+                "from events where id=? and deleted_at is null",
                 EVENT_ROW,
                 eventId
         );
     }
 
-    public long create(long calendarId, String title, OffsetDateTime startAt, OffsetDateTime endAt, boolean allDay, String note, long userId) {
+    public long create(long calendarId, String title, OffsetDateTime startAt, OffsetDateTime endAt, boolean allDay, String note,
+                       String rrule, OffsetDateTime recurUntil, long userId) {
         Long id = jdbc.queryForObject(
-                "insert into events (calendar_id, title, start_at, end_at, all_day, note, created_by, updated_by) values (?,?,?,?,?,?,?,?) returning id",
+                "with changed as (" +
+                "  insert into events (calendar_id, title, start_at, end_at, all_day, note, rrule, recur_until, created_by, updated_by) " +
+                "  values (?,?,?,?,?,?,?,?,?,?) returning id, calendar_id), " +
+                "bump as (update calendars set version = version + 1, updated_at = now() where id in (select calendar_id from changed)) " +
+                "select id from changed",
                 Long.class,
-                calendarId, title, startAt, endAt, allDay, note, userId, userId
+                calendarId, title, startAt, endAt, allDay, note, rrule, recurUntil, userId, userId
         );
         return id;
     }
 
     public void update(long eventId, String title, OffsetDateTime startAt, OffsetDateTime endAt, Boolean allDay, String note, long userId) {
         jdbc.update(
-                "update events set title=coalesce(?, title), start_at=coalesce(?, start_at), end_at=coalesce(?, end_at), " +
-                "all_day=coalesce(?, all_day), note=coalesce(?, note), updated_by=?, updated_at=now() where id=?",
+                "with changed as (" +
+                "  update events set title=coalesce(?, title), start_at=coalesce(?, start_at), end_at=coalesce(?, end_at), " +
+                "  all_day=coalesce(?, all_day), note=coalesce(?, note), updated_by=?, updated_at=now() where id=? " +
+                "  returning calendar_id)" + BUMP_CHANGED,
                 title, startAt, endAt, allDay, note, userId, eventId
         );
     }
 
+    public void updateRecurrence(long eventId, String rrule, OffsetDateTime recurUntil) {
+        jdbc.update(
+                "with changed as (update events set rrule=?, recur_until=?, updated_at=now() where id=? returning calendar_id)" +
+                BUMP_CHANGED,
+                rrule, recurUntil, eventId
+        );
+    }
+
+    // 시리즈를 지우면 예외 행도 같이 지운다 (이미 취소된 회차는 그대로)
     public void softDelete(long eventId, long userId) {
-        jdbc.update("update events set deleted_at=now(), updated_by=?, updated_at=now() where id=?", userId, eventId);
+        jdbc.update(
+                "with changed as (" +
+                "  update events set deleted_at=now(), updated_by=?, updated_at=now() " +
+                "  where id=? or (series_id=? and deleted_at is null) returning calendar_id)" + BUMP_CHANGED,
+                userId, eventId, eventId
+        );
+    }
+
+    public record Occurrence(long id, boolean cancelled) {}
+
+    public Occurrence findOccurrence(long seriesId, OffsetDateTime originalStart) {
+        return jdbc.query(
+                "select id, deleted_at is not null as cancelled from events where series_id=? and original_start_at=?",
+                rs -> rs.next() ? new Occurrence(rs.getLong("id"), rs.getBoolean("cancelled")) : null,
+                seriesId, originalStart
+        );
+    }
+
+    // 회차 키(event_occurrences)를 먼저 넣고, 들어간 경우에만 예외 행을 만든다 (파티션 테이블에는 이 unique index 를 둘 수 없음)
+    private static final String OCCURRENCE_KEY =
+            "with k as (insert into event_occurrences (series_id, original_start_at) values (?, ?) " +
+            "  on conflict do nothing returning series_id, original_start_at) ";
+
+    // 한 회차만 바꾸거나(cancelled=false) 취소한(cancelled=true) 예외 행. 동시에 같은 회차를 만들면 null
+    public Long createOccurrence(EventRecord series, OffsetDateTime originalStart, String title, OffsetDateTime startAt,
+                                 OffsetDateTime endAt, boolean allDay, String note, boolean cancelled, long userId) {
+        List<Long> ids = jdbc.queryForList(
+                OCCURRENCE_KEY + ", changed as (" +
+                "  insert into events (calendar_id, title, start_at, end_at, all_day, note, series_id, original_start_at, " +
+                "  deleted_at, created_by, updated_by) " +
+                "  select ?, ?, ?, ?, ?, ?::text, k.series_id, k.original_start_at, case when ? then now() end, ?, ? from k " +
+                "  returning id, calendar_id), " +
+                "bump as (update calendars set version = version + 1, updated_at = now() where id in (select calendar_id from changed)) " +
+                "select id from changed",
+                Long.class,
+                series.id(), originalStart, series.calendarId(), title, startAt, endAt, allDay, note, cancelled, userId, userId
+        );
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    public record EventPatch(long id, String title, OffsetDateTime startAt, OffsetDateTime endAt, Boolean allDay, String note) {}
+
+    public record Target(long calendarId, boolean recurring, OffsetDateTime startAt, OffsetDateTime endAt) {}
+
+    // 삭제되지 않은 이벤트의 event id -> calendar id, 반복 시리즈 여부, 현재 시각 (한쪽만 바꾸는 수정을 검증할 때 쓴다)
+    public Map<Long, Target> findTargets(Collection<Long> eventIds) {
+        Map<Long, Target> out = new HashMap<>();
+        if (eventIds.isEmpty()) return out;
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select id, calendar_id, rrule is not null as recurring, start_at, end_at " +
+                    "from events where id = any(?) and deleted_at is null");
+            ps.setArray(1, con.createArrayOf("bigint", eventIds.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> out.put(rs.getLong("id"), new Target(rs.getLong("calendar_id"), rs.getBoolean("recurring"),
+                rs.getObject("start_at", OffsetDateTime.class), rs.getObject("end_at", OffsetDateTime.class))));
+        return out;
+    }
+
+    // batch insert 전에 id를 한 번에 받아 둔다 (insert ... returning 은 batch로 묶을 수 없음)
+    public List<Long> nextIds(int count) {
+        return jdbc.queryForList(
+                "select nextval(pg_get_serial_sequence('events', 'id')) from generate_series(1, ?)",
+                Long.class,
+                count
+        );
+    }
+
+    public void batchCreate(List<EventRecord> events, long userId) {
+        if (events.isEmpty()) return;
+        jdbc.batchUpdate(
+                "insert into events (id, calendar_id, title, start_at, end_at, all_day, note, rrule, recur_until, created_by, updated_by) " +
+                "values (?,?,?,?,?,?,?,?,?,?,?)",
+                events.stream().map(e -> new Object[]{
+                        e.id(), e.calendarId(), e.title(), e.startAt(), e.endAt(), e.allDay(), e.note(),
+                        e.rrule(), e.recurUntil(), userId, userId
+                }).toList()
+        );
+        bumpVersions(events.stream().map(EventRecord::calendarId).distinct().toList());
+    }
+
+    public record CancelledOccurrence(EventRecord series, OffsetDateTime originalStart) {}
+
+    // 시리즈에서 빠진 회차(EXDATE)를 삭제된 예외 행으로 한꺼번에 만든다
+    public void batchCreateCancelled(List<CancelledOccurrence> occurrences, long userId) {
+        if (occurrences.isEmpty()) return;
+        jdbc.batchUpdate(
+                OCCURRENCE_KEY +
+                "insert into events (calendar_id, title, start_at, end_at, all_day, series_id, original_start_at, " +
+                "deleted_at, created_by, updated_by) " +
+                "select ?, ?, ?, ?, ?, k.series_id, k.original_start_at, now(), ?, ? from k",
+                occurrences.stream().map(o -> {
+                    EventRecord s = o.series();
+                    var end = o.originalStart().plusSeconds(s.endAt().toEpochSecond() - s.startAt().toEpochSecond());
+                    return new Object[]{
+                            s.id(), o.originalStart(), s.calendarId(), s.title(), o.originalStart(), end, s.allDay(), userId, userId
+                    };
+                }).toList()
+        );
+        bumpVersions(occurrences.stream().map(o -> o.series().calendarId()).distinct().toList());
+    }
+
+    public void batchUpdate(List<EventPatch> patches, long userId) {
+        if (patches.isEmpty()) return;
+        jdbc.batchUpdate(
+                "update events set title=coalesce(?, title), start_at=coalesce(?, start_at), end_at=coalesce(?, end_at), " +
+                "all_day=coalesce(?, all_day), note=coalesce(?, note), updated_by=?, updated_at=now() where id=?",
+                patches.stream().map(p -> new Object[]{
+                        p.title(), p.startAt(), p.endAt(), p.allDay(), p.note(), userId, p.id()
+                }).toList()
+        );
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "update calendars set version = version + 1, updated_at = now() where id in (" +
+                    "  select id from calendars where id in (select calendar_id from events where id = any(?)) order by id for update)");
+            ps.setArray(1, con.createArrayOf("bigint", patches.stream().map(EventPatch::id).toArray()));
+            return ps;
+        });
+    }
+
+    public void softDeleteAll(Collection<Long> eventIds, long userId) {
+        if (eventIds.isEmpty()) return;
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "with changed as (" +
+                    "  update events set deleted_at=now(), updated_by=?, updated_at=now() " +
+                    "  where id = any(?) or (series_id = any(?) and deleted_at is null) returning calendar_id)" + BUMP_CHANGED);
+            Array ids = con.createArrayOf("bigint", eventIds.toArray());
+            ps.setLong(1, userId);
+            ps.setArray(2, ids);
+            ps.setArray(3, ids);
+            return ps;
+        });
+    }
+
+    // batch 는 행마다 올리지 않고 끝에 한 번. 호출한 쪽의 트랜잭션 안에서 실행된다 (id 순으로 잠가 교착을 피한다)
+    private void bumpVersions(List<Long> calendarIds) {
+        if (calendarIds.isEmpty()) return;
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "update calendars set version = version + 1, updated_at = now() where id in (" +
+                    "  select id from calendars where id = any(?) order by id for update)");
+            ps.setArray(1, con.createArrayOf("bigint", calendarIds.toArray()));
+            return ps;
+        });
     }
 }
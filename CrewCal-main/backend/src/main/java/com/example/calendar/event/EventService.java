@@ -1,16 +1,23 @@
 package com.example.calendar.event;
 
+import com.example.calendar.calendar.CalendarChange;
 import com.example.calendar.calendar.CalendarRepository;
 import com.example.calendar.calendar.CalendarRole;
 import com.example.calendar.common.exception.ApiException;
 import com.example.calendar.common.security.UserPrincipal;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class EventService {
@@ -18,44 +25,221 @@ public class EventService {
     private final EventRepository eventRepository;
     private final ReminderRepository reminderRepository;
     private final CalendarRepository calendarRepository;
+    private final ApplicationEventPublisher events;
 
-    public EventService(EventRepository eventRepository, ReminderRepository reminderRepository, CalendarRepository calendarRepository) {
+    public EventService(EventRepository eventRepository, ReminderRepository reminderRepository,
+                        CalendarRepository calendarRepository, ApplicationEventPublisher events) {
         this.eventRepository = eventRepository;
         this.reminderRepository = reminderRepository;
         this.calendarRepository = calendarRepository;
+        this.events = events;
     }
 
-    public List<EventDtos.EventItem> list(UserPrincipal principal, List<Long> calendarIds, String fromIso, String toIso) {
+    // GET /events 의 ETag. 요청한 캘린더 중 멤버인 것들의 version/권한만 본다
+    public String versionTag(UserPrincipal principal, List<Long> calendarIds) {
+        return calendarRepository.versionTag(principal.userId(), calendarIds);
+    }
+
+    // 조회 구간 [from, to). tstzrange(from, to) 는 from > to 이면 만들 수 없으므로 여기서 400 으로 막는다
+    public record Window(OffsetDateTime from, OffsetDateTime to) {}
+
+    public static Window window(String fromIso, String toIso) {
         OffsetDateTime from = parseIso(fromIso);
         OffsetDateTime to = parseIso(toIso);
+        if (!to.isAfter(from)) throw new ApiException(HttpStatus.BAD_REQUEST, "to must be after from");
+        return new Window(from, to);
+    }
 
-        List<EventDtos.EventItem> out = new ArrayList<>();
-        for (Long calId : calendarIds) {
-            if (!calendarRepository.isMember(calId, principal.userId())) continue;
-
-            CalendarRole role = calendarRepository.roleOf(calId, principal.userId());
-            var records = eventRepository.list(calId, from, to);
-
-            for (var r : records) {
-                Integer minutes = reminderRepository.findMinutesBefore(r.id());
-                if (role == CalendarRole.FREEBUSY) {
-                    out.add(new EventDtos.EventItem(
-                            r.id(), r.calendarId(), "Busy",
-                            r.startAt().toString(), r.endAt().toString(),
-                            r.allDay(), null, null
-                    ));
-                } else {
-                    out.add(new EventDtos.EventItem(
-                            r.id(), r.calendarId(), r.title(),
-                            r.startAt().toString(), r.endAt().toString(),
-                            r.allDay(), r.note(), minutes
-                    ));
-                }
+    public List<EventDtos.EventItem> list(UserPrincipal principal, List<Long> calendarIds, String fromIso, String toIso) {
+        Window w = window(fromIso, toIso);
+        OffsetDateTime from = w.from();
+        OffsetDateTime to = w.to();
+
+        if (calendarIds.isEmpty()) return List.of();
+        List<EventDtos.EventItem> singles = eventRepository.listVisible(principal.userId(), calendarIds, from, to);
+        List<Occurrence> occurrences = expand(eventRepository.listSeries(principal.userId(), calendarIds, from, to), from, to);
+        if (occurrences.isEmpty()) return singles;
+
+        List<EventDtos.EventItem> merged = new ArrayList<>(singles.size() + occurrences.size());
+        OccurrenceMerger merger = new OccurrenceMerger(occurrences, merged::add);
+        singles.forEach(merger);
+        merger.finish();
+        return merged;
+    }
+
+    // window 는 호출하는 쪽이 응답 스트림을 열기 전에 window() 로 검증해 둔다.
+    // 여기서 던지는 예외는 이미 열린 200 응답에 실리지 못하기 때문
+    @Transactional(readOnly = true)
+    public void stream(UserPrincipal principal, List<Long> calendarIds, Window window,
+                       Consumer<EventDtos.EventItem> sink) {
+        OffsetDateTime from = window.from();
+        OffsetDateTime to = window.to();
+
+        if (calendarIds.isEmpty()) return;
+        // 시리즈는 몇 행 안 되므로 먼저 펼쳐 두고, 단일 일정 커서를 따라가며 시작 시각 순으로 끼워 넣는다
+        List<Occurrence> occurrences = expand(eventRepository.listSeries(principal.userId(), calendarIds, from, to), from, to);
+        if (occurrences.isEmpty()) {
+            eventRepository.streamVisible(principal.userId(), calendarIds, from, to, sink);
+            return;
+        }
+        OccurrenceMerger merger = new OccurrenceMerger(occurrences, sink);
+        eventRepository.streamVisible(principal.userId(), calendarIds, from, to, merger);
+        merger.finish();
+    }
+
+    private static final int MAX_PAGE = 200;
+    private static final OffsetDateTime FAR_FUTURE = OffsetDateTime.parse("9999-12-31T00:00:00Z");
+
+    // 시작 시각 기준 키셋 페이지. 이미 진행 중인(from 이전에 시작한) 일정은 포함하지 않는다
+    public EventDtos.EventPage page(UserPrincipal principal, List<Long> calendarIds, String fromIso, String toIso,
+                                    String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE);
+        }
+        KeysetCursor after;
+        if (cursor != null && !cursor.isBlank()) {
+            after = KeysetCursor.decode(cursor);
+        } else if (fromIso != null) {
+            after = new KeysetCursor(parseIso(fromIso), 0);
+        } else {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "from or cursor is required");
+        }
+        OffsetDateTime before = toIso != null ? parseIso(toIso) : FAR_FUTURE;
+        if (calendarIds.isEmpty()) return new EventDtos.EventPage(List.of(), null);
+
+        // 한 건 더 읽어서 다음 페이지가 있는지 본다
+        List<EventDtos.EventItem> singles = eventRepository.pageVisible(principal.userId(), calendarIds, after, before, limit + 1);
+        // 단일 일정이 limit 개를 넘으면 그 마지막 시작 시각까지만 회차를 펼치면 된다
+        OffsetDateTime horizon = singles.size() > limit
+                ? OffsetDateTime.parse(singles.get(limit).startAt()).plusSeconds(1)
+                : before;
+
+        List<Occurrence> occurrences = new ArrayList<>();
+        long afterS = after.at().toEpochSecond();
+        for (var s : eventRepository.listSeries(principal.userId(), calendarIds, after.at(), horizon)) {
+            var t = s.template();
+            long duration = s.endAt().toEpochSecond() - s.startAt().toEpochSecond();
+            RecurrenceRule.parse(t.rrule()).startsBetween(s.startAt(), s.recurUntil(), afterS,
+                    horizon.toEpochSecond(), limit + 1 + s.overridden().length, epoch -> {
+                        if (Arrays.binarySearch(s.overridden(), epoch) >= 0) return;
+                        OffsetDateTime start = RecurrenceRule.at(s.startAt(), epoch);
+                        // 같은 초에 시작한 회차는 id 로 키셋 순서를 정한다
+                        if (!isAfter(start, t.id(), after)) return;
+                        addOccurrence(occurrences, s, start, duration);
+                    });
+        }
+        occurrences.sort(Comparator.comparingLong(Occurrence::startEpoch).thenComparingLong(o -> o.item().id()));
+
+        List<EventDtos.EventItem> merged = new ArrayList<>(Math.min(singles.size() + occurrences.size(), limit + 1));
+        int i = 0, j = 0;
+        while (merged.size() <= limit && (i < singles.size() || j < occurrences.size())) {
+            boolean takeSingle;
+            if (j >= occurrences.size()) {
+                takeSingle = true;
+            } else if (i >= singles.size()) {
+                takeSingle = false;
+            } else {
+                var single = singles.get(i);
+                var occ = occurrences.get(j).item();
+                int c = OffsetDateTime.parse(single.startAt()).compareTo(OffsetDateTime.parse(occ.startAt()));
+                takeSingle = c < 0 || (c == 0 && single.id() < occ.id());
             }
+            merged.add(takeSingle ? singles.get(i++) : occurrences.get(j++).item());
+        }
+        if (merged.size() <= limit) return new EventDtos.EventPage(merged, null);
+
+        var items = merged.subList(0, limit);
+        var last = items.get(limit - 1);
+        String next = new KeysetCursor(OffsetDateTime.parse(last.startAt()), last.id()).encode();
+        return new EventDtos.EventPage(List.copyOf(items), next);
+    }
+
+    private static boolean isAfter(OffsetDateTime start, long id, KeysetCursor after) {
+        int c = start.toInstant().compareTo(after.at().toInstant());
+        return c > 0 || (c == 0 && id > after.id());
+    }
+
+    private static void addOccurrence(List<Occurrence> out, EventRepository.SeriesRow s, OffsetDateTime start, long duration) {
+        var t = s.template();
+        String startIso = start.toString();
+        out.add(new Occurrence(start.toEpochSecond(), new EventDtos.EventItem(
+                t.id(), t.calendarId(), t.title(), startIso, start.plusSeconds(duration).toString(),
+                t.allDay(), t.note(), t.reminderMinutesBefore(), t.id(), startIso, t.rrule())));
+    }
+
+    private record Occurrence(long startEpoch, EventDtos.EventItem item) {}
+
+    // 요청 구간에 걸치는 회차만 만든다. 예외 행으로 대체된 회차는 건너뛴다 (예외 행은 단일 일정 쿼리로 나옴)
+    private static List<Occurrence> expand(List<EventRepository.SeriesRow> series, OffsetDateTime from, OffsetDateTime to) {
+        if (series.isEmpty()) return List.of();
+        List<Occurrence> out = new ArrayList<>();
+        for (var s : series) {
+            RecurrenceRule rule = RecurrenceRule.parse(s.template().rrule());
+            long duration = s.endAt().toEpochSecond() - s.startAt().toEpochSecond();
+            rule.expand(s.startAt(), duration, s.recurUntil(), from, to, epoch -> {
+                if (Arrays.binarySearch(s.overridden(), epoch) >= 0) return;
+                addOccurrence(out, s, RecurrenceRule.at(s.startAt(), epoch), duration);
+            });
         }
+        out.sort(Comparator.comparingLong(Occurrence::startEpoch));
         return out;
     }
 
+    // 시작 시각 순으로 들어오는 단일 일정 사이에 (정렬된) 회차를 끼워 넣는다
+    private static final class OccurrenceMerger implements Consumer<EventDtos.EventItem> {
+        private final List<Occurrence> occurrences;
+        private final Consumer<EventDtos.EventItem> sink;
+        private int next;
+
+        OccurrenceMerger(List<Occurrence> occurrences, Consumer<EventDtos.EventItem> sink) {
+            this.occurrences = occurrences;
+            this.sink = sink;
+        }
+
+        @Override
+        public void accept(EventDtos.EventItem item) {
+            if (next < occurrences.size()) {
+                long start = OffsetDateTime.parse(item.startAt()).toEpochSecond();
+                while (next < occurrences.size() && occurrences.get(next).startEpoch() < start) {
+                    sink.accept(occurrences.get(next++).item());
+                }
+            }
+            sink.accept(item);
+        }
+
+        void finish() {
+            while (next < occurrences.size()) sink.accept(occurrences.get(next++).item());
+        }
+    }
+
+    private static final int MAX_CHANGES_PAGE = 1000;
+
+    // since 가 없으면 현재 시점 커서만 돌려준다. 클라이언트는 이 커서를 먼저 받고 /events 로 전체를 받는다
+    // (순서를 바꾸면 그 사이에 커밋된 변경을 놓칠 수 있다)
+    // 만료 확인과 목록을 한 스냅샷에서 읽는다. 그 사이에 아카이브가 커밋되면 tombstone 이 빠진 목록을 200 으로 줄 수 있다
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public EventDtos.EventChanges changes(UserPrincipal principal, List<Long> calendarIds, String since, int limit) {
+        if (since == null || since.isBlank()) {
+            return new EventDtos.EventChanges(List.of(), eventRepository.changesWatermark().encode(), false);
+        }
+        if (limit < 1 || limit > MAX_CHANGES_PAGE) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_CHANGES_PAGE);
+        }
+        if (calendarIds.isEmpty()) return new EventDtos.EventChanges(List.of(), since, false);
+
+        ChangeCursor after = ChangeCursor.decode(since);
+        if (eventRepository.changesExpired(principal.userId(), calendarIds, after)) throw ChangeCursor.resyncRequired();
+        var rows = eventRepository.listChanges(principal.userId(), calendarIds, after, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) rows = rows.subList(0, limit);
+        if (rows.isEmpty()) return new EventDtos.EventChanges(List.of(), since, false);
+
+        var last = rows.get(rows.size() - 1);
+        String cursor = new ChangeCursor(last.xid(), last.change().id()).encode();
+        return new EventDtos.EventChanges(rows.stream().map(EventRepository.ChangeRow::change).toList(), cursor, hasMore);
+    }
+
+    @Transactional
     public long create(UserPrincipal principal, EventDtos.CreateEventRequest req) {
         CalendarRole role = calendarRepository.roleOf(req.calendarId(), principal.userId());
         if (!(role == CalendarRole.OWNER || role == CalendarRole.EDITOR)) {
@@ -65,12 +249,18 @@ public class EventService {
         OffsetDateTime start = parseIso(req.startAt());
         OffsetDateTime end = parseIso(req.endAt());
         if (!end.isAfter(start)) throw new ApiException(HttpStatus.BAD_REQUEST, "endAt must be after startAt");
+        requireMaxSpan(start, end);
 
-        long id = eventRepository.create(req.calendarId(), req.title(), start, end, req.allDay(), req.note(), principal.userId());
-        reminderRepository.upsert(id, req.reminderMinutesBefore());
+        String rrule = normalizeRule(req.rrule());
+        OffsetDateTime recurUntil = rrule == null ? null : RecurrenceRule.parse(rrule).lastStart(start);
+        long id = eventRepository.create(req.calendarId(), req.title(), start, end, req.allDay(), req.note(),
+                rrule, recurUntil, principal.userId());
+        reminderRepository.upsert(id, req.reminderMinutesBefore(), reminderAnchor(rrule, start, recurUntil));
+        events.publishEvent(CalendarChange.event(req.calendarId(), id, "CREATED"));
         return id;
     }
 
+    @Transactional
     public void update(UserPrincipal principal, long eventId, EventDtos.UpdateEventRequest req) {
         var existing = eventRepository.get(eventId);
         CalendarRole role = calendarRepository.roleOf(existing.calendarId(), principal.userId());
@@ -80,11 +270,124 @@ public class EventService {
 
         OffsetDateTime start = req.startAt() != null ? parseIso(req.startAt()) : null;
         OffsetDateTime end = req.endAt() != null ? parseIso(req.endAt()) : null;
+        OffsetDateTime mergedStart = start != null ? start : existing.startAt();
+        OffsetDateTime mergedEnd = end != null ? end : existing.endAt();
+        // span (tstzrange) 이 만들어지지 않아 500 이 되기 전에 막는다
+        if (!mergedEnd.isAfter(mergedStart)) throw new ApiException(HttpStatus.BAD_REQUEST, "endAt must be after startAt");
+        requireMaxSpan(mergedStart, mergedEnd);
+
+        String rrule = existing.rrule();
+        OffsetDateTime recurUntil = existing.recurUntil();
+        if (req.rrule() != null) {
+            if (existing.seriesId() != null) throw new ApiException(HttpStatus.BAD_REQUEST, "An occurrence cannot recur");
+            rrule = normalizeRule(req.rrule());
+            if (rrule == null) throw new ApiException(HttpStatus.BAD_REQUEST, "rrule cannot be cleared; delete the series instead");
+        }
+        boolean recurrenceChanged = rrule != null && (req.rrule() != null || start != null);
+        if (recurrenceChanged) {
+            recurUntil = RecurrenceRule.parse(rrule).lastStart(start != null ? start : existing.startAt());
+        }
 
         eventRepository.update(eventId, req.title(), start, end, req.allDay(), req.note(), principal.userId());
-        reminderRepository.upsert(eventId, req.reminderMinutesBefore());
+        if (recurrenceChanged) eventRepository.updateRecurrence(eventId, rrule, recurUntil);
+        reminderRepository.upsert(eventId, req.reminderMinutesBefore(),
+                reminderAnchor(rrule, start != null ? start : existing.startAt(), recurUntil));
+        events.publishEvent(CalendarChange.event(existing.calendarId(), eventId, "UPDATED"));
+    }
+
+    // 반복 일정의 한 회차만 수정한다 (at = 원래 회차 시작 시각). 예외 행 id 를 돌려준다
+    @Transactional
+    public long updateOccurrence(UserPrincipal principal, long seriesId, String atIso, EventDtos.UpdateEventRequest req) {
+        var series = requireSeries(principal, seriesId);
+        if (req.rrule() != null) throw new ApiException(HttpStatus.BAD_REQUEST, "An occurrence cannot recur");
+        OffsetDateTime at = requireOccurrence(series, atIso);
+
+        OffsetDateTime start = req.startAt() != null ? parseIso(req.startAt()) : null;
+        OffsetDateTime end = req.endAt() != null ? parseIso(req.endAt()) : null;
+
+        // 예외 행에는 알림을 따로 두지 않는다 (시리즈 알림이 회차마다 울림).
+        // 시리즈 알림이 이 회차를 기다리고 있으면 옮겨진 시작 기준으로 다시 맞춘다
+        var existing = eventRepository.findOccurrence(seriesId, at);
+        if (existing != null) {
+            if (existing.cancelled()) throw new ApiException(HttpStatus.NOT_FOUND, "Occurrence not found");
+            eventRepository.update(existing.id(), req.title(), start, end, req.allDay(), req.note(), principal.userId());
+            if (start != null) reminderRepository.realignOccurrence(seriesId, at);
+            events.publishEvent(CalendarChange.event(series.calendarId(), existing.id(), "UPDATED"));
+            return existing.id();
+        }
+
+        long duration = series.endAt().toEpochSecond() - series.startAt().toEpochSecond();
+        OffsetDateTime newStart = start != null ? start : at;
+        OffsetDateTime newEnd = end != null ? end : newStart.plusSeconds(duration);
+        if (!newEnd.isAfter(newStart)) throw new ApiException(HttpStatus.BAD_REQUEST, "endAt must be after startAt");
+        requireMaxSpan(newStart, newEnd);
+
+        Long id = eventRepository.createOccurrence(series, at,
+                req.title() != null ? req.title() : series.title(), newStart, newEnd,
+                req.allDay() != null ? req.allDay() : series.allDay(),
+                req.note() != null ? req.note() : series.note(),
+                false, principal.userId());
+        if (id == null) throw new ApiException(HttpStatus.CONFLICT, "Occurrence was changed concurrently");
+        if (start != null) reminderRepository.realignOccurrence(seriesId, at);
+        events.publishEvent(CalendarChange.event(series.calendarId(), id, "CREATED"));
+        return id;
     }
 
+    // 반복 일정의 한 회차만 취소한다 (삭제된 예외 행을 남긴다)
+    @Transactional
+    public void deleteOccurrence(UserPrincipal principal, long seriesId, String atIso) {
+        var series = requireSeries(principal, seriesId);
+        OffsetDateTime at = requireOccurrence(series, atIso);
+
+        var existing = eventRepository.findOccurrence(seriesId, at);
+        if (existing != null) {
+            if (existing.cancelled()) return;
+            eventRepository.softDelete(existing.id(), principal.userId());
+            events.publishEvent(CalendarChange.event(series.calendarId(), existing.id(), "DELETED"));
+            return;
+        }
+
+        long duration = series.endAt().toEpochSecond() - series.startAt().toEpochSecond();
+        Long id = eventRepository.createOccurrence(series, at, series.title(), at, at.plusSeconds(duration),
+                series.allDay(), series.note(), true, principal.userId());
+        if (id == null) throw new ApiException(HttpStatus.CONFLICT, "Occurrence was changed concurrently");
+        events.publishEvent(CalendarChange.event(series.calendarId(), id, "DELETED"));
+    }
+
+    private EventRepository.EventRecord requireSeries(UserPrincipal principal, long seriesId) {
+        var series = eventRepository.get(seriesId);
+        CalendarRole role = calendarRepository.roleOf(series.calendarId(), principal.userId());
+        if (!(role == CalendarRole.OWNER || role == CalendarRole.EDITOR)) {
+            throw new ApiException(HttpStatus.FORBIDDEN, "Editor permission required");
+        }
+        if (series.rrule() == null) throw new ApiException(HttpStatus.BAD_REQUEST, "Event is not recurring");
+        return series;
+    }
+
+    // 예외 행의 original_start_at 은 시리즈 시작 시각과 같은 offset 으로 맞춰 저장한다
+    private static OffsetDateTime requireOccurrence(EventRepository.EventRecord series, String atIso) {
+        OffsetDateTime at = parseIso(atIso);
+        RecurrenceRule rule = RecurrenceRule.parse(series.rrule());
+        if (!rule.occursAt(series.startAt(), series.recurUntil(), at)) {
+            throw new ApiException(HttpStatus.NOT_FOUND, "Occurrence not found");
+        }
+        return RecurrenceRule.at(series.startAt(), at.toEpochSecond());
+    }
+
+    private static String normalizeRule(String rrule) {
+        if (rrule == null || rrule.isBlank()) return null;
+        String trimmed = rrule.trim();
+        RecurrenceRule.parse(trimmed);
+        return trimmed;
+    }
+
+    // 반복 시리즈의 알림은 지금 이후 첫 회차 기준으로 잡고, 울린 뒤에는 dispatcher 가 다음 회차로 옮긴다
+    private static OffsetDateTime reminderAnchor(String rrule, OffsetDateTime start, OffsetDateTime recurUntil) {
+        if (rrule == null) return null;
+        return RecurrenceRule.parse(rrule).nextStartAfter(start, recurUntil, OffsetDateTime.now());
+    }
+
+    @Transactional
     public void delete(UserPrincipal principal, long eventId) {
         var existing = eventRepository.get(eventId);
         CalendarRole role = calendarRepository.roleOf(existing.calendarId(), principal.userId());
@@ -93,9 +396,18 @@ public class EventService {
         }
         eventRepository.softDelete(eventId, principal.userId());
         reminderRepository.upsert(eventId, null);
+        events.publishEvent(CalendarChange.event(existing.calendarId(), eventId, "DELETED"));
+    }
+
+    // V12 chk_events_span 에 걸리기 전에 400 으로 돌려준다
+    public static void requireMaxSpan(OffsetDateTime start, OffsetDateTime end) {
+        if (end.isAfter(start.plus(EventRepository.MAX_SPAN))) {
+            throw new ApiException(HttpStatus.BAD_REQUEST,
+                    "An event cannot be longer than " + EventRepository.MAX_SPAN.toDays() + " days");
+        }
     }
 
-    private OffsetDateTime parseIso(String iso) {
+    public static OffsetDateTime parseIso(String iso) {
         try { return OffsetDateTime.parse(iso); }
         catch (DateTimeParseException e) { throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid ISO datetime: " + iso); }
     }
@@ -0,0 +1,256 @@
+package com.example.calendar.event;
+
+import com.example.calendar.common.exception.ApiException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpStatus;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+// RFC 5545 RRULE 의 부분집합: FREQ=DAILY|WEEKLY|MONTHLY|YEARLY, INTERVAL, COUNT, UNTIL, BYDAY(WEEKLY 전용).
+// occurrence 는 시리즈 시작 시각의 offset 기준으로 계산하고, epoch second 로만 다룬다.
+// 요청 구간 앞의 회차는 산술로 건너뛰므로 읽기 비용은 실제로 돌려주는 회차 수에만 비례한다.
+public final class RecurrenceRule {
+
+    public enum Freq { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    private static final long DAY = 86_400;
+    private static final long WEEK = 7 * DAY;
+    private static final int MAX_COUNT = 5000;
+    private static final int MAX_INTERVAL = 1000;
+    // 아주 넓은 구간 조회에서 한 시리즈가 응답을 잡아먹지 않도록
+    private static final int MAX_OCCURRENCES_PER_WINDOW = 5000;
+
+    private static final DateTimeFormatter UNTIL_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter UNTIL_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    // 같은 규칙 문자열(예: 교대 근무 패턴)을 여러 시리즈가 공유하므로 파싱 결과를 캐시한다
+    private static final Cache<String, RecurrenceRule> PARSED = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .build();
+
+    private final Freq freq;
+    private final int interval;
+    private final Integer count;
+    private final OffsetDateTime until;
+    // 월요일 = 0, 오름차순
+    private final int[] byDay;
+
+    private RecurrenceRule(Freq freq, int interval, Integer count, OffsetDateTime until, int[] byDay) {
+        this.freq = freq;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.byDay = byDay;
+    }
+
+    public static RecurrenceRule parse(String rrule) {
+        if (rrule == null || rrule.isBlank()) throw invalid(rrule);
+        return PARSED.get(rrule.trim(), RecurrenceRule::doParse);
+    }
+
+    private static RecurrenceRule doParse(String rrule) {
+        String body = rrule.startsWith("RRULE:") ? rrule.substring(6) : rrule;
+        Freq freq = null;
+        int interval = 1;
+        Integer count = null;
+        OffsetDateTime until = null;
+        int[] byDay = null;
+
+        for (String part : body.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) throw invalid(rrule);
+            String key = part.substring(0, eq).trim().toUpperCase();
+            String value = part.substring(eq + 1).trim().toUpperCase();
+            try {
+                switch (key) {
+                    case "FREQ" -> freq = Freq.valueOf(value);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    case "UNTIL" -> until = parseUntil(value);
+                    case "BYDAY" -> byDay = parseByDay(value);
+                    case "WKST" -> {
+                        if (!"MO".equals(value)) throw invalid(rrule);
+                    }
+                    default -> throw invalid(rrule);
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw invalid(rrule);
+            }
+        }
+
+        if (freq == null) throw invalid(rrule);
+        if (interval < 1 || interval > MAX_INTERVAL) throw invalid(rrule);
+        if (count != null && (count < 1 || count > MAX_COUNT)) throw invalid(rrule);
+        if (count != null && until != null) throw invalid(rrule);
+        if (byDay != null && freq != Freq.WEEKLY) throw invalid(rrule);
+        return new RecurrenceRule(freq, interval, count, until, byDay);
+    }
+
+    private static OffsetDateTime parseUntil(String value) {
+        if (value.length() == 8) {
+            // 날짜만 있으면 그 날 전체를 포함한다
+            return LocalDate.parse(value, UNTIL_DATE).atTime(LocalTime.MAX).atOffset(ZoneOffset.UTC);
+        }
+        return LocalDateTime.parse(value, UNTIL_TIME).atOffset(ZoneOffset.UTC);
+    }
+
+    private static int[] parseByDay(String value) {
+        int[] days = Arrays.stream(value.split(","))
+                .map(String::trim)
+                .mapToInt(d -> switch (d) {
+                    case "MO" -> 0;
+                    case "TU" -> 1;
+                    case "WE" -> 2;
+                    case "TH" -> 3;
+                    case "FR" -> 4;
+                    case "SA" -> 5;
+                    case "SU" -> 6;
+                    default -> throw new IllegalArgumentException(d);
+                })
+                .distinct()
+                .sorted()
+                .toArray();
+        if (days.length == 0) throw new IllegalArgumentException(value);
+        return days;
+    }
+
+    private static ApiException invalid(String rrule) {
+        return new ApiException(HttpStatus.BAD_REQUEST, "Unsupported RRULE: " + rrule);
+    }
+
+    // 마지막 회차 시작 시각의 상한 (포함). 끝이 없는 규칙이면 null
+    public OffsetDateTime lastStart(OffsetDateTime dtStart) {
+        if (until != null) return until;
+        if (count == null) return null;
+        long[] last = {dtStart.toEpochSecond()};
+        int[] seen = {0};
+        iterate(dtStart, Long.MIN_VALUE, t -> {
+            last[0] = t;
+            return ++seen[0] < count;
+        });
+        return at(dtStart, last[0]);
+    }
+
+    // [from, to) 와 겹치는 회차의 시작 시각(epoch second)을 순서대로 넘긴다
+    public void expand(OffsetDateTime dtStart, long durationSeconds, OffsetDateTime lastStart,
+                       OffsetDateTime from, OffsetDateTime to, LongConsumer out) {
+        long fromS = from.toEpochSecond();
+        long toS = to.toEpochSecond();
+        long lastS = lastStart == null ? Long.MAX_VALUE : lastStart.toEpochSecond();
+        int[] emitted = {0};
+        iterate(dtStart, fromS - durationSeconds, t -> {
+            if (t >= toS || t > lastS) return false;
+            if (t + durationSeconds > fromS) {
+                out.accept(t);
+                return ++emitted[0] < MAX_OCCURRENCES_PER_WINDOW;
+            }
+            return true;
+        });
+    }
+
+    // 시작 시각이 [after, before) 인 회차를 순서대로 최대 max 개 (epoch second)
+    public void startsBetween(OffsetDateTime dtStart, OffsetDateTime lastStart, long after, long before, int max,
+                              LongConsumer out) {
+        long lastS = lastStart == null ? Long.MAX_VALUE : lastStart.toEpochSecond();
+        int[] emitted = {0};
+        iterate(dtStart, after, t -> {
+            if (t >= before || t > lastS || emitted[0] >= max) return false;
+            if (t >= after) {
+                out.accept(t);
+                emitted[0]++;
+            }
+            return true;
+        });
+    }
+
+    // after 보다 뒤에 시작하는 첫 회차, 없으면 null
+    public OffsetDateTime nextStartAfter(OffsetDateTime dtStart, OffsetDateTime lastStart, OffsetDateTime after) {
+        long afterS = after.toEpochSecond();
+        long lastS = lastStart == null ? Long.MAX_VALUE : lastStart.toEpochSecond();
+        long[] found = {Long.MIN_VALUE};
+        iterate(dtStart, afterS, t -> {
+            if (t > lastS) return false;
+            if (t > afterS) {
+                found[0] = t;
+                return false;
+            }
+            return true;
+        });
+        return found[0] == Long.MIN_VALUE ? null : at(dtStart, found[0]);
+    }
+
+    public boolean occursAt(OffsetDateTime dtStart, OffsetDateTime lastStart, OffsetDateTime at) {
+        long atS = at.toEpochSecond();
+        long lastS = lastStart == null ? Long.MAX_VALUE : lastStart.toEpochSecond();
+        boolean[] hit = {false};
+        iterate(dtStart, atS, t -> {
+            if (t > atS || t > lastS) return false;
+            if (t == atS) {
+                hit[0] = true;
+                return false;
+            }
+            return true;
+        });
+        return hit[0];
+    }
+
+    public static OffsetDateTime at(OffsetDateTime dtStart, long epochSecond) {
+        return OffsetDateTime.of(LocalDateTime.ofEpochSecond(epochSecond, dtStart.getNano(), dtStart.getOffset()),
+                dtStart.getOffset());
+    }
+
+    // 회차를 순서대로 방문한다. skipBefore 보다 앞의 회차는 (일부만 남기고) 계산 없이 건너뛴다.
+    // visitor 가 false 를 돌려주면 멈춘다.
+    private void iterate(OffsetDateTime dtStart, long skipBefore, LongPredicate visitor) {
+        long base = dtStart.toEpochSecond();
+        switch (freq) {
+            case DAILY, WEEKLY -> {
+                if (byDay == null) {
+                    long period = interval * (freq == Freq.DAILY ? DAY : WEEK);
+                    long n = skipBefore > base ? (skipBefore - base) / period : 0;
+                    while (visitor.test(base + n * period)) n++;
+                    return;
+                }
+                int dow = dtStart.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue();
+                long weekBase = base - dow * DAY;
+                long period = interval * WEEK;
+                long w = skipBefore > weekBase ? (skipBefore - weekBase) / period : 0;
+                for (; ; w++) {
+                    for (int d : byDay) {
+                        long t = weekBase + w * period + d * DAY;
+                        if (t < base) continue;
+                        if (!visitor.test(t)) return;
+                    }
+                }
+            }
+            case MONTHLY, YEARLY -> {
+                ZoneOffset offset = dtStart.getOffset();
+                LocalDateTime local = dtStart.toLocalDateTime();
+                long step = (long) interval * (freq == Freq.MONTHLY ? 1 : 12);
+                long n = 0;
+                if (skipBefore > base) {
+                    long months = ChronoUnit.MONTHS.between(local, LocalDateTime.ofEpochSecond(skipBefore, 0, offset));
+                    n = Math.max(0, months / step - 1);
+                }
+                for (; ; n++) {
+                    LocalDateTime candidate = local.plusMonths(n * step);
+                    // 31일/2월 29일처럼 없는 날짜인 달은 건너뛴다 (말일로 당기지 않음)
+                    if (candidate.getDayOfMonth() != local.getDayOfMonth()) continue;
+                    if (!visitor.test(candidate.toEpochSecond(offset))) return;
+                }
+            }
+        }
+    }
+}
@@ -3,12 +3,32 @@ package com.example.calendar.event;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
 @Repository
 public class ReminderRepository {
     private final JdbcTemplate jdbc;
 
     public ReminderRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
 
+    // fire_at은 이벤트의 현재 start_at 기준으로 다시 계산한다 (반복 시리즈는 다음 회차 시작 시각을 anchor 로 넘긴다).
+    // 반복 시리즈는 그 회차를 occurrence_at 에 두고, 회차만 옮긴 예외 행이 있으면 옮겨진 시작 기준으로 울린다.
+    // 발송 시각이 바뀌면 발송/claim 상태를 초기화해서 새 시각에 다시 잡히게 한다.
+    private static final String UPSERT_SQL =
+            "insert into event_reminders (event_id, minutes_before, occurrence_at, fire_at) " +
+            "select e.id, ?, o.at, coalesce(x.start_at, o.at, e.start_at) - make_interval(mins => ?) from events e " +
+            "cross join lateral (select case when e.rrule is not null then coalesce(cast(? as timestamptz), e.start_at) end as at) o " +
+            "left join events x on x.series_id = e.id and x.original_start_at = o.at and x.deleted_at is null " +
+            "where e.id = ? " +
+            "on conflict (event_id) do update set minutes_before = excluded.minutes_before, " +
+            "occurrence_at = excluded.occurrence_at, fire_at = excluded.fire_at, " +
+            "fired_at = case when event_reminders.fire_at = excluded.fire_at then event_reminders.fired_at end, " +
+            "claimed_by = case when event_reminders.fire_at = excluded.fire_at then event_reminders.claimed_by end, " +
+            "claimed_until = case when event_reminders.fire_at = excluded.fire_at then event_reminders.claimed_until end";
+
     public Integer findMinutesBefore(long eventId) {
         return jdbc.query(
                 "select minutes_before from event_reminders where event_id=?",
@@ -18,15 +38,55 @@ public class ReminderRepository {
     }
 
     public void upsert(long eventId, Integer minutesBefore) {
+        upsert(eventId, minutesBefore, null);
+    }
+
+    public void upsert(long eventId, Integer minutesBefore, OffsetDateTime anchor) {
         if (minutesBefore == null) {
             jdbc.update("delete from event_reminders where event_id=?", eventId);
             return;
         }
-        Integer n = jdbc.queryForObject("select count(*) from event_reminders where event_id=?", Integer.class, eventId);
-        if (n != null && n > 0) {
-            jdbc.update("update event_reminders set minutes_before=? where event_id=?", minutesBefore, eventId);
-        } else {
-            jdbc.update("insert into event_reminders (event_id, minutes_before) values (?,?)", eventId, minutesBefore);
+        jdbc.update(UPSERT_SQL, minutesBefore, minutesBefore, anchor, eventId);
+    }
+
+    // 시리즈 알림이 지금 가리키는 회차를 옮겼으면 옮겨진 시작 기준으로 다시 맞춘다 (다른 회차면 아무 행도 바뀌지 않음)
+    public void realignOccurrence(long seriesId, OffsetDateTime originalStart) {
+        jdbc.update(
+                "update event_reminders r set fire_at = x.start_at - make_interval(mins => r.minutes_before), " +
+                "claimed_by = null, claimed_until = null " +
+                "from events x " +
+                "where r.event_id = ? and r.occurrence_at = ? and r.fired_at is null " +
+                "  and x.series_id = r.event_id and x.original_start_at = r.occurrence_at and x.deleted_at is null " +
+                "  and r.fire_at <> x.start_at - make_interval(mins => r.minutes_before)",
+                seriesId, originalStart
+        );
+    }
+
+    // 여러 이벤트의 알림을 한꺼번에 교체 (값이 null이면 알림 제거)
+    public void replaceAll(Map<Long, Integer> minutesByEvent) {
+        replaceAll(minutesByEvent, Map.of());
+    }
+
+    // anchors: 반복 시리즈의 다음 회차 시작 시각 (없으면 start_at 기준)
+    public void replaceAll(Map<Long, Integer> minutesByEvent, Map<Long, OffsetDateTime> anchors) {
+        List<Long> removed = minutesByEvent.entrySet().stream()
+                .filter(e -> e.getValue() == null)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<Object[]> rows = minutesByEvent.entrySet().stream()
+                .filter(e -> e.getValue() != null)
+                .map(e -> new Object[]{e.getValue(), e.getValue(), anchors.get(e.getKey()), e.getKey()})
+                .toList();
+
+        if (!removed.isEmpty()) {
+            jdbc.update(con -> {
+                PreparedStatement ps = con.prepareStatement("delete from event_reminders where event_id = any(?)");
+                ps.setArray(1, con.createArrayOf("bigint", removed.toArray()));
+                return ps;
+            });
+        }
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate(UPSERT_SQL, rows);
         }
     }
 }
@@ -0,0 +1,116 @@
+package com.example.calendar.ics;
+
+import com.example.calendar.calendar.CalendarRole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+public class FeedRepository {
+    private final JdbcTemplate jdbc;
+
+    public FeedRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // updatedAt 은 version 과 같은 문장에서 now() 로 바뀐다 (Last-Modified 용)
+    public record Feed(long calendarId, String calendarName, CalendarRole role, long version, OffsetDateTime updatedAt) {}
+
+    // 취소된 회차는 시리즈의 EXDATE 로, 수정된 회차는 RECURRENCE-ID 를 가진 별도 VEVENT 로 내보낸다
+    public record FeedEvent(
+            long id,
+            String title,
+            OffsetDateTime startAt,
+            OffsetDateTime endAt,
+            boolean allDay,
+            String note,
+            String rrule,
+            Long seriesId,
+            OffsetDateTime originalStartAt,
+            OffsetDateTime updatedAt,
+            List<OffsetDateTime> exdates
+    ) {}
+
+    public void upsertToken(long calendarId, long userId, String token) {
+        jdbc.update(
+                "insert into calendar_feed_tokens (calendar_id, user_id, token) values (?,?,?) " +
+                "on conflict (calendar_id, user_id) do update set token = excluded.token, created_at = now()",
+                calendarId, userId, token
+        );
+    }
+
+    public void deleteToken(long calendarId, long userId) {
+        jdbc.update("delete from calendar_feed_tokens where calendar_id=? and user_id=?", calendarId, userId);
+    }
+
+    // 토큰 확인과 캘린더 version / updated_at 을 한 번에 (events 는 읽지 않는다)
+    public Feed findFeed(long calendarId, String token) {
+        return jdbc.query(
+                "select c.id, c.name, cm.role, c.version, c.updated_at " +
+                "from calendar_feed_tokens t " +
+                "join calendar_members cm on cm.calendar_id = t.calendar_id and cm.user_id = t.user_id " +
+                "join calendars c on c.id = t.calendar_id " +
+                "where t.calendar_id = ? and t.token = ?",
+                rs -> rs.next() ? new Feed(
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        CalendarRole.valueOf(rs.getString("role")),
+                        rs.getLong("version"),
+                        rs.getObject("updated_at", OffsetDateTime.class)
+                ) : null,
+                calendarId, token
+        );
+    }
+
+    // 반복 시리즈는 전부, 단일 일정은 pastDays 이전에 끝난 것은 뺀다. 트랜잭션 안에서 호출해야 커서로 읽는다
+    public void streamEvents(long calendarId, int pastDays, Consumer<FeedEvent> sink) {
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select e.id, e.title, e.start_at, e.end_at, e.all_day, e.note, e.rrule, e.series_id, " +
+                    "e.original_start_at, e.updated_at, " +
+                    "case when e.rrule is null then null else " +
+                    "  array(select x.original_start_at from events x where x.series_id = e.id and x.deleted_at is not null " +
+                    "        order by x.original_start_at) end as exdates " +
+                    "from events e " +
+                    "where e.calendar_id = ? and e.deleted_at is null " +
+                    "and (e.rrule is not null or e.end_at > now() - make_interval(days => ?)) " +
+                    "order by e.id",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            ps.setLong(1, calendarId);
+            ps.setInt(2, pastDays);
+            return ps;
+        }, (RowCallbackHandler) rs -> sink.accept(new FeedEvent(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getObject("start_at", OffsetDateTime.class),
+                rs.getObject("end_at", OffsetDateTime.class),
+                rs.getBoolean("all_day"),
+                rs.getString("note"),
+                rs.getString("rrule"),
+                rs.getObject("series_id", Long.class),
+                rs.getObject("original_start_at", OffsetDateTime.class),
+                rs.getObject("updated_at", OffsetDateTime.class),
+                times(rs.getArray("exdates"))
+        )));
+    }
+
+    private static List<OffsetDateTime> times(Array array) throws SQLException {
+        if (array == null) return List.of();
+        Object[] values = (Object[]) array.getArray();
+        List<OffsetDateTime> out = new ArrayList<>(values.length);
+        for (Object v : values) out.add(((Timestamp) v).toInstant().atOffset(ZoneOffset.UTC));
+        return out;
+    }
+}
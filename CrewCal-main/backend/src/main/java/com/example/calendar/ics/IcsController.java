@@ -0,0 +1,98 @@
+package com.example.calendar.ics;
+
+import com.example.calendar.common.exception.ApiException;
+import com.example.calendar.common.metrics.StatementBudget;
+import com.example.calendar.common.security.AuthUtil;
+import com.example.calendar.common.security.UserPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+@RestController
+public class IcsController {
+    private final IcsFeedService feedService;
+    private final IcsImportService importService;
+
+    public IcsController(IcsFeedService feedService, IcsImportService importService) {
+        this.feedService = feedService;
+        this.importService = importService;
+    }
+
+    @PostMapping("/calendars/{calendarId}/feed-token")
+    public Map<String, Object> rotateToken(@PathVariable long calendarId) {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        String token = feedService.rotateToken(p.userId(), calendarId);
+        return Map.of("token", token, "path", "/calendars/" + calendarId + "/feed.ics?token=" + token);
+    }
+
+    @DeleteMapping("/calendars/{calendarId}/feed-token")
+    public void revokeToken(@PathVariable long calendarId) {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        feedService.revokeToken(p.userId(), calendarId);
+    }
+
+    // 구독 클라이언트용 (JWT 없이 토큰으로 인증). 변경이 없으면 이벤트를 읽지 않고 304
+    // tz: 종일 일정 날짜를 계산할 시간대 (기본 UTC)
+    @StatementBudget(2)
+    @GetMapping("/calendars/{calendarId}/feed.ics")
+    public void feed(@PathVariable long calendarId, @RequestParam String token,
+                     @RequestParam(required = false) String tz,
+                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ZoneId zone = zoneOf(tz);
+        FeedRepository.Feed feed = feedService.requireFeed(calendarId, token);
+
+        String etag = "\"" + calendarId + "-" + feed.role() + "-" + feed.version() + "-" + zone.getId() + "\"";
+        // ETag 를 모르는 클라이언트는 If-Modified-Since 만 보낸다. 둘 다 오면 ETag 가 우선한다
+        long lastModified = feed.updatedAt().toInstant().toEpochMilli();
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) return;
+
+        response.setContentType("text/calendar");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "private, no-cache");
+        var out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), 16 * 1024);
+        feedService.write(feed, new IcsWriter(out, zone));
+    }
+
+    // tz: TZID 없는 시각과 종일 일정을 해석할 시간대 (기본 UTC)
+    // 가져오기 두 경로는 @StatementBudget 을 두지 않는다: 문장 수가 파일 크기(chunk 수)와 실패한 chunk 를 나눠 다시 저장하는 횟수에
+    // 비례하는 것이 설계이고, chunk 안에서는 batch 라 항목 수에 비례하지 않는다. 대신 app.ics.import-chunk-size 로 묶는다
+    @PostMapping(value = "/calendars/{calendarId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public IcsDtos.ImportResult importFile(@PathVariable long calendarId, @RequestPart("file") MultipartFile file,
+                                           @RequestParam(required = false) String tz) throws IOException {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        try (InputStream in = file.getInputStream()) {
+            return importService.importIcs(p.userId(), calendarId, in, zoneOf(tz));
+        }
+    }
+
+    // 본문을 그대로 보내는 경우 (curl --data-binary @cal.ics -H 'Content-Type: text/calendar')
+    @PostMapping(value = "/calendars/{calendarId}/import", consumes = "text/calendar")
+    public IcsDtos.ImportResult importBody(@PathVariable long calendarId, @RequestParam(required = false) String tz,
+                                           HttpServletRequest request) throws IOException {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        return importService.importIcs(p.userId(), calendarId, request.getInputStream(), zoneOf(tz));
+    }
+
+    private static ZoneId zoneOf(String tz) {
+        if (tz == null || tz.isBlank()) return ZoneOffset.UTC;
+        try {
+            return ZoneId.of(tz);
+        } catch (DateTimeException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid tz: " + tz);
+        }
+    }
+}
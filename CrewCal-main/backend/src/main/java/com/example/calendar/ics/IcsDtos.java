@@ -0,0 +1,23 @@
+package com.example.calendar.ics;
+
+import java.util.List;
+
+public class IcsDtos {
+
+    // index: 파일 안에서 VEVENT 순번 (0부터)
+    public record ImportError(
+            int index,
+            String uid,
+            String message
+    ) {}
+
+    // errors 는 앞쪽 일부만 담는다 (errorsTruncated 로 표시)
+    public record ImportResult(
+            int total,
+            int imported,
+            int skipped,
+            int failed,
+            List<ImportError> errors,
+            boolean errorsTruncated
+    ) {}
+}
@@ -0,0 +1,67 @@
+package com.example.calendar.ics;
+
+import com.example.calendar.calendar.CalendarRepository;
+import com.example.calendar.calendar.CalendarRole;
+import com.example.calendar.common.exception.ApiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+@Service
+public class IcsFeedService {
+
+    private final FeedRepository feedRepository;
+    private final CalendarRepository calendarRepository;
+    private final int pastDays;
+
+    public IcsFeedService(FeedRepository feedRepository, CalendarRepository calendarRepository,
+                          @Value("${app.ics.feed-past-days:180}") int pastDays) {
+        this.feedRepository = feedRepository;
+        this.calendarRepository = calendarRepository;
+        this.pastDays = pastDays;
+    }
+
+    // 새로 만들거나 교체한다 (이전 토큰으로 구독 중인 클라이언트는 끊긴다)
+    public String rotateToken(long userId, long calendarId) {
+        if (calendarRepository.roleOf(calendarId, userId) == null) {
+            throw new ApiException(HttpStatus.FORBIDDEN, "Not a member of this calendar");
+        }
+        String token = UUID.randomUUID().toString().replace("-", "");
+        feedRepository.upsertToken(calendarId, userId, token);
+        return token;
+    }
+
+    public void revokeToken(long userId, long calendarId) {
+        feedRepository.deleteToken(calendarId, userId);
+    }
+
+    public FeedRepository.Feed requireFeed(long calendarId, String token) {
+        FeedRepository.Feed feed = feedRepository.findFeed(calendarId, token);
+        if (feed == null) throw new ApiException(HttpStatus.NOT_FOUND, "Feed not found");
+        return feed;
+    }
+
+    // 커서(fetch size)는 트랜잭션 안에서만 적용되므로 readOnly 트랜잭션으로 감싼다
+    @Transactional(readOnly = true)
+    public void write(FeedRepository.Feed feed, IcsWriter writer) throws IOException {
+        boolean busyOnly = feed.role() == CalendarRole.FREEBUSY;
+        writer.beginCalendar(feed.calendarName());
+        try {
+            feedRepository.streamEvents(feed.calendarId(), pastDays, e -> {
+                try {
+                    writer.event(e, busyOnly);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.endCalendar();
+    }
+}
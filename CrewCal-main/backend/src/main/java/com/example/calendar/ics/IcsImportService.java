@@ -0,0 +1,317 @@
+package com.example.calendar.ics;
+
+import com.example.calendar.calendar.CalendarChange;
+import com.example.calendar.calendar.CalendarRepository;
+import com.example.calendar.calendar.CalendarRole;
+import com.example.calendar.common.exception.ApiException;
+import com.example.calendar.event.EventRepository;
+import com.example.calendar.event.EventService;
+import com.example.calendar.event.RecurrenceRule;
+import com.example.calendar.event.ReminderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// .ics 가져오기: VEVENT 를 하나씩 읽어 chunk 단위로 batch insert 한다.
+// chunk 마다 별도 트랜잭션이라 메모리는 chunk 크기만큼만 쓰고, 저장에 실패하면 그 chunk 를 나눠 문제 있는 항목만 뺀다.
+@Service
+public class IcsImportService {
+    private static final Logger log = LoggerFactory.getLogger(IcsImportService.class);
+
+    private static final int MAX_TITLE = 200;
+    private static final int MAX_ERRORS = 100;
+    private static final DateTimeFormatter LOCAL_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final EventRepository eventRepository;
+    private final ReminderRepository reminderRepository;
+    private final CalendarRepository calendarRepository;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher events;
+    private final int chunkSize;
+
+    public IcsImportService(EventRepository eventRepository,
+                            ReminderRepository reminderRepository,
+                            CalendarRepository calendarRepository,
+                            TransactionTemplate tx,
+                            ApplicationEventPublisher events,
+                            @Value("${app.ics.import-chunk-size:2000}") int chunkSize) {
+        this.eventRepository = eventRepository;
+        this.reminderRepository = reminderRepository;
+        this.calendarRepository = calendarRepository;
+        this.tx = tx;
+        this.events = events;
+        this.chunkSize = chunkSize;
+    }
+
+    // 파싱된 VEVENT 하나. id 는 chunk 를 저장할 때 채운다
+    private record Parsed(int index, String uid, EventRepository.EventRecord event, Integer reminderMinutes,
+                          List<OffsetDateTime> exdates) {}
+
+    // zone: TZID 가 없거나 알 수 없는 시각(floating time)과 종일 일정에 쓰는 기본 시간대
+    public IcsDtos.ImportResult importIcs(long userId, long calendarId, InputStream in, ZoneId zone) throws IOException {
+        CalendarRole role = calendarRepository.roleOf(calendarId, userId);
+        if (!(role == CalendarRole.OWNER || role == CalendarRole.EDITOR)) {
+            throw new ApiException(HttpStatus.FORBIDDEN, "Editor permission required");
+        }
+
+        var run = new ImportRun(userId, calendarId, zone);
+        IcsReader.readEvents(new InputStreamReader(in, StandardCharsets.UTF_8), run::accept);
+        run.flush();
+
+        log.info("ICS import calendar={} done: total={} imported={} skipped={} failed={}",
+                calendarId, run.total, run.imported, run.skipped, run.failed);
+        // 구독자에게는 이벤트별이 아니라 캘린더 단위로 한 번만 알린다
+        if (run.imported > 0) events.publishEvent(CalendarChange.calendar(calendarId, "UPDATED"));
+        return new IcsDtos.ImportResult(run.total, run.imported, run.skipped, run.failed, run.errors, run.errorsTruncated);
+    }
+
+    private final class ImportRun {
+        final long userId;
+        final long calendarId;
+        final ZoneId zone;
+        final Map<String, ZoneId> zones = new HashMap<>();
+        final List<Parsed> chunk = new ArrayList<>();
+        final List<IcsDtos.ImportError> errors = new ArrayList<>();
+        int total, imported, skipped, failed;
+        boolean errorsTruncated;
+
+        ImportRun(long userId, long calendarId, ZoneId zone) {
+            this.userId = userId;
+            this.calendarId = calendarId;
+            this.zone = zone;
+        }
+
+        void accept(IcsReader.Component vevent) {
+            int index = total++;
+            String uid = vevent.value("UID");
+            if (vevent.error() != null) {
+                fail(index, uid, vevent.error());
+                return;
+            }
+            try {
+                Parsed parsed = parse(index, uid, vevent);
+                if (parsed == null) {
+                    skipped++;
+                    return;
+                }
+                chunk.add(parsed);
+                if (chunk.size() >= chunkSize) flush();
+            } catch (ApiException e) {
+                fail(index, uid, e.getMessage());
+            } catch (DateTimeException | IllegalArgumentException e) {
+                fail(index, uid, "Invalid value: " + e.getMessage());
+            }
+        }
+
+        void fail(int index, String uid, String message) {
+            failed++;
+            if (errors.size() < MAX_ERRORS) errors.add(new IcsDtos.ImportError(index, uid, message));
+            else errorsTruncated = true;
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) return;
+            saveOrSplit(chunk);
+            log.info("ICS import calendar={} progress: parsed={} imported={} failed={}",
+                    calendarId, total, imported, failed);
+            chunk.clear();
+        }
+
+        // 값 때문에 실패한 chunk 는 반으로 나눠 다시 저장해서 문제 있는 항목만 실패로 남기고 실제 원인을 돌려준다
+        // (나쁜 항목이 k 개면 트랜잭션은 약 k * log2(chunk) 번). 연결 끊김 등 값과 무관한 실패는 나눠도 같으니 chunk 째 실패
+        private void saveOrSplit(List<Parsed> parsed) {
+            try {
+                tx.executeWithoutResult(status -> save(parsed));
+                imported += parsed.size();
+            } catch (DataIntegrityViolationException e) {
+                if (parsed.size() > 1) {
+                    int mid = parsed.size() / 2;
+                    saveOrSplit(parsed.subList(0, mid));
+                    saveOrSplit(parsed.subList(mid, parsed.size()));
+                    return;
+                }
+                Parsed p = parsed.get(0);
+                String reason = reason(e);
+                log.debug("ICS import calendar={} item {} failed: {}", calendarId, p.index(), reason);
+                fail(p.index(), p.uid(), "Could not be saved: " + reason);
+            } catch (DataAccessException e) {
+                log.warn("ICS import calendar={} chunk failed: {}", calendarId, e.getMessage());
+                String reason = reason(e);
+                for (Parsed p : parsed) fail(p.index(), p.uid(), "Could not be saved: " + reason);
+            }
+        }
+
+        private void save(List<Parsed> parsed) {
+            List<Long> ids = eventRepository.nextIds(parsed.size());
+            List<EventRepository.EventRecord> records = new ArrayList<>(parsed.size());
+            List<EventRepository.CancelledOccurrence> cancelled = new ArrayList<>();
+            Map<Long, Integer> reminders = new HashMap<>();
+            Map<Long, OffsetDateTime> anchors = new HashMap<>();
+            OffsetDateTime now = OffsetDateTime.now();
+            for (int k = 0; k < parsed.size(); k++) {
+                var p = parsed.get(k);
+                var e = p.event();
+                long id = ids.get(k);
+                var record = new EventRepository.EventRecord(id, e.calendarId(), e.title(), e.startAt(), e.endAt(),
+                        e.allDay(), e.note(), e.rrule(), e.recurUntil(), null);
+                records.add(record);
+                for (OffsetDateTime exdate : p.exdates()) {
+                    cancelled.add(new EventRepository.CancelledOccurrence(record, exdate));
+                }
+                if (p.reminderMinutes() != null) {
+                    reminders.put(id, p.reminderMinutes());
+                    if (e.rrule() != null) {
+                        var next = RecurrenceRule.parse(e.rrule()).nextStartAfter(e.startAt(), e.recurUntil(), now);
+                        if (next != null) anchors.put(id, next);
+                    }
+                }
+            }
+            eventRepository.batchCreate(records, userId);
+            eventRepository.batchCreateCancelled(cancelled, userId);
+            reminderRepository.replaceAll(reminders, anchors);
+        }
+
+        // 가져오지 않을 항목(취소된 일정)은 null
+        private Parsed parse(int index, String uid, IcsReader.Component v) {
+            if ("CANCELLED".equalsIgnoreCase(v.value("STATUS"))) return null;
+            // 수정된 회차는 원본 시리즈와 짝을 맞춰야 해서 아직 지원하지 않는다
+            if (v.first("RECURRENCE-ID") != null) throw badRequest("Recurrence overrides are not supported");
+
+            IcsReader.Property dtStart = v.first("DTSTART");
+            if (dtStart == null) throw badRequest("DTSTART is required");
+            boolean allDay = isDate(dtStart);
+            OffsetDateTime start = time(dtStart);
+
+            OffsetDateTime end;
+            IcsReader.Property dtEnd = v.first("DTEND");
+            String duration = v.value("DURATION");
+            if (dtEnd != null) end = time(dtEnd);
+            else if (duration != null) end = start.plus(duration(duration));
+            else end = allDay ? start.plusDays(1) : start;
+            if (!end.isAfter(start)) throw badRequest("DTEND must be after DTSTART");
+            EventService.requireMaxSpan(start, end);
+
+            String title = IcsReader.unescape(v.value("SUMMARY"));
+            if (title == null || title.isBlank()) title = "(No title)";
+            title = title.strip();
+            if (title.length() > MAX_TITLE) title = title.substring(0, MAX_TITLE);
+            String note = IcsReader.unescape(v.value("DESCRIPTION"));
+
+            String rrule = v.value("RRULE");
+            OffsetDateTime recurUntil = null;
+            List<OffsetDateTime> exdates = List.of();
+            if (rrule != null) {
+                rrule = rrule.trim();
+                recurUntil = RecurrenceRule.parse(rrule).lastStart(start);
+                exdates = new ArrayList<>();
+                for (IcsReader.Property ex : v.all("EXDATE")) {
+                    for (String value : ex.value().split(",")) {
+                        exdates.add(time(new IcsReader.Property(ex.name(), ex.params(), value)));
+                    }
+                }
+            }
+
+            var event = new EventRepository.EventRecord(0, calendarId, title, start, end, allDay, note, rrule, recurUntil, null);
+            return new Parsed(index, uid, event, reminderMinutes(v, start), exdates);
+        }
+
+        // 시작 시각 기준 VALARM 중 첫 번째만 쓴다 (이벤트당 알림은 하나)
+        private Integer reminderMinutes(IcsReader.Component v, OffsetDateTime start) {
+            for (IcsReader.Component alarm : v.children()) {
+                if (!alarm.name().equals("VALARM")) continue;
+                IcsReader.Property trigger = alarm.first("TRIGGER");
+                if (trigger == null) continue;
+                long seconds;
+                if ("DATE-TIME".equalsIgnoreCase(trigger.param("VALUE"))) {
+                    seconds = start.toEpochSecond() - time(trigger).toEpochSecond();
+                } else {
+                    if ("END".equalsIgnoreCase(trigger.param("RELATED"))) continue;
+                    seconds = -duration(trigger.value()).getSeconds();
+                }
+                if (seconds >= 0) return (int) Math.min(seconds / 60, Integer.MAX_VALUE);
+            }
+            return null;
+        }
+
+        private boolean isDate(IcsReader.Property p) {
+            return "DATE".equalsIgnoreCase(p.param("VALUE")) || p.value().trim().length() == 8;
+        }
+
+        // UTC(…Z), TZID 지정, floating 시각과 DATE 값을 OffsetDateTime 으로
+        private OffsetDateTime time(IcsReader.Property p) {
+            String value = p.value().trim();
+            if (isDate(p)) {
+                return LocalDate.parse(value, DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay(zone).toOffsetDateTime();
+            }
+            if (value.endsWith("Z")) {
+                return LocalDateTime.parse(value.substring(0, value.length() - 1), LOCAL_TIME).atOffset(ZoneOffset.UTC);
+            }
+            return LocalDateTime.parse(value, LOCAL_TIME).atZone(zoneOf(p.param("TZID"))).toOffsetDateTime();
+        }
+
+        // Windows 식 이름("Pacific Standard Time") 등 IANA 가 아닌 TZID 는 기본 시간대로 본다
+        private ZoneId zoneOf(String tzid) {
+            if (tzid == null) return zone;
+            return zones.computeIfAbsent(tzid, id -> {
+                try {
+                    return ZoneId.of(id.startsWith("/") ? id.substring(1) : id);
+                } catch (DateTimeException e) {
+                    return zone;
+                }
+            });
+        }
+    }
+
+    // RFC 5545 DURATION (주 단위 "P2W" 포함, 음수 허용)
+    static Duration duration(String value) {
+        String v = value.trim();
+        boolean negative = v.startsWith("-");
+        if (negative || v.startsWith("+")) v = v.substring(1);
+        Duration d;
+        if (v.endsWith("W")) {
+            d = Duration.ofDays(7L * Long.parseLong(v.substring(1, v.length() - 1)));
+        } else {
+            d = Duration.parse(v);
+        }
+        return negative ? d.negated() : d;
+    }
+
+    // 드라이버 메시지의 첫 줄 (PostgreSQL 은 "ERROR: ..." 다음 줄에 Detail 을 붙인다).
+    // batch 실패는 BatchUpdateException 에 SQL 이 통째로 들어 있으므로 getNextException 의 원인을 쓴다
+    private static String reason(DataAccessException e) {
+        Throwable cause = e.getMostSpecificCause();
+        if (cause instanceof SQLException sql && sql.getNextException() != null) cause = sql.getNextException();
+        String message = cause.getMessage();
+        if (message == null) return e.getClass().getSimpleName();
+        int nl = message.indexOf('\n');
+        return (nl < 0 ? message : message.substring(0, nl)).strip();
+    }
+
+    private static ApiException badRequest(String message) {
+        return new ApiException(HttpStatus.BAD_REQUEST, message);
+    }
+}
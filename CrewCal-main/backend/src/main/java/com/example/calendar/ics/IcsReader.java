@@ -0,0 +1,232 @@
+package com.example.calendar.ics;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// RFC 5545 스트리밍 파서: 접힌 줄을 펴면서 한 줄씩 읽고, VEVENT 가 끝날 때마다 바로 넘긴다.
+// 문서 전체를 메모리에 올리지 않으며 VEVENT(와 그 안의 VALARM) 외의 컴포넌트는 내용을 버린다.
+// 줄 길이/속성 수/항목 크기에 상한을 두어 VEVENT 하나가 쓰는 메모리를 묶는다.
+final class IcsReader {
+
+    record Property(String name, Map<String, String> params, String value) {
+        String param(String key) { return params.get(key); }
+    }
+
+    // error 가 있으면 제한을 넘어 내용을 다 모으지 못한 VEVENT (가져오기에서 그 항목만 실패로 남긴다)
+    record Component(String name, List<Property> properties, List<Component> children, String error) {
+        Property first(String propertyName) {
+            for (Property p : properties) if (p.name().equals(propertyName)) return p;
+            return null;
+        }
+
+        List<Property> all(String propertyName) {
+            List<Property> out = new ArrayList<>();
+            for (Property p : properties) if (p.name().equals(propertyName)) out.add(p);
+            return out;
+        }
+
+        String value(String propertyName) {
+            Property p = first(propertyName);
+            return p == null ? null : p.value();
+        }
+    }
+
+    // 한 항목이 메모리를 얼마나 쓸 수 있는지의 상한. 넘으면 그 VEVENT 는 나머지를 버리고 error 로 넘긴다
+    static final int MAX_LINE_LENGTH = 64 * 1024;        // 접힌 줄을 편 뒤 한 줄
+    static final int MAX_PROPERTIES = 500;               // 컴포넌트 하나의 속성 수
+    static final int MAX_CHILDREN = 50;                  // 컴포넌트 하나의 하위 컴포넌트(VALARM 등) 수
+    static final int MAX_EVENT_LENGTH = 1024 * 1024;     // VEVENT 하나(하위 포함)의 전체 글자 수
+
+    private IcsReader() {}
+
+    static void readEvents(Reader source, Consumer<Component> onEvent) throws IOException {
+        LineReader in = new LineReader(source);
+        State state = new State(onEvent);
+        StringBuilder pending = null;
+        boolean pendingTooLong = false;
+        String line;
+        while ((line = in.readLine(MAX_LINE_LENGTH)) != null) {
+            // 공백/탭으로 시작하면 앞 줄의 연속
+            if (!line.isEmpty() && (line.charAt(0) == ' ' || line.charAt(0) == '\t')) {
+                if (pending == null || pendingTooLong) continue;
+                if (in.truncated || pending.length() + line.length() - 1 > MAX_LINE_LENGTH) pendingTooLong = true;
+                else pending.append(line, 1, line.length());
+                continue;
+            }
+            if (pending != null) state.handle(pending, pendingTooLong);
+            pending = line.isEmpty() ? null : new StringBuilder(line);
+            pendingTooLong = in.truncated;
+        }
+        if (pending != null) state.handle(pending, pendingTooLong);
+    }
+
+    // VEVENT 밖의 컴포넌트 / 제한을 넘은 VEVENT 안의 컴포넌트 (내용을 버리고 BEGIN/END 짝만 맞춘다)
+    private static final Component SKIPPED = new Component("", List.of(), List.of(), null);
+    private static final Component DROPPED = new Component("", List.of(), List.of(), null);
+
+    private static final class State {
+        final Deque<Component> stack = new ArrayDeque<>();
+        final Consumer<Component> onEvent;
+        // 지금 모으는 (가장 바깥) VEVENT 의 글자 수와 처음 넘은 제한
+        int eventLength;
+        String eventError;
+
+        State(Consumer<Component> onEvent) { this.onEvent = onEvent; }
+
+        boolean insideEvent() { return !stack.isEmpty() && stack.peek() != SKIPPED; }
+
+        void handle(CharSequence text, boolean tooLong) {
+            boolean inside = insideEvent();
+            if (tooLong) {
+                if (inside) failEvent("Line longer than " + MAX_LINE_LENGTH + " characters");
+                return;
+            }
+            Property p = parse(text.toString());
+            if (p == null) return;
+            if (inside && (eventLength += text.length()) > MAX_EVENT_LENGTH) {
+                failEvent("Event longer than " + MAX_EVENT_LENGTH + " characters");
+            }
+            switch (p.name()) {
+                case "BEGIN" -> {
+                    String name = p.value().toUpperCase();
+                    if (!inside) {
+                        // VEVENT(와 그 안쪽)만 내용을 모은다
+                        if (!name.equals("VEVENT")) {
+                            stack.push(SKIPPED);
+                            return;
+                        }
+                        eventLength = text.length();
+                        eventError = null;
+                    }
+                    stack.push(eventError == null ? new Component(name, new ArrayList<>(), new ArrayList<>(), null) : DROPPED);
+                }
+                case "END" -> {
+                    if (stack.isEmpty()) return;
+                    Component done = stack.pop();
+                    if (done == SKIPPED || done == DROPPED) return;
+                    if (!insideEvent()) {
+                        if (done.name().equals("VEVENT")) {
+                            onEvent.accept(eventError == null ? done
+                                    : new Component(done.name(), done.properties(), done.children(), eventError));
+                        }
+                        return;
+                    }
+                    if (eventError != null) return;
+                    List<Component> siblings = stack.peek().children();
+                    if (siblings.size() >= MAX_CHILDREN) failEvent("More than " + MAX_CHILDREN + " nested components");
+                    else siblings.add(done);
+                }
+                default -> {
+                    if (!inside || eventError != null) return;
+                    List<Property> properties = stack.peek().properties();
+                    if (properties.size() >= MAX_PROPERTIES) failEvent("More than " + MAX_PROPERTIES + " properties");
+                    else properties.add(p);
+                }
+            }
+        }
+
+        // 처음 넘은 제한만 남기고, 이후 내용은 모으지 않는다 (BEGIN/END 짝은 계속 따라간다)
+        private void failEvent(String reason) {
+            if (eventError == null) eventError = reason;
+        }
+    }
+
+    // BufferedReader.readLine 과 같지만 max 글자까지만 모으고 나머지는 줄 끝까지 버린다 (truncated).
+    // 줄바꿈 없는 큰 본문이 와도 한 줄이 메모리를 무한정 쓰지 않는다
+    private static final class LineReader {
+        private final Reader in;
+        private final char[] buf = new char[64 * 1024];
+        private int pos, end;
+        private boolean skipLf;
+        boolean truncated;
+
+        LineReader(Reader in) { this.in = in; }
+
+        String readLine(int max) throws IOException {
+            truncated = false;
+            StringBuilder sb = null;
+            while (true) {
+                if (pos == end) {
+                    int n = in.read(buf, 0, buf.length);
+                    if (n <= 0) return sb == null ? null : sb.toString();
+                    pos = 0;
+                    end = n;
+                }
+                if (skipLf) {
+                    skipLf = false;
+                    if (buf[pos] == '\n') {
+                        pos++;
+                        continue;
+                    }
+                }
+                int start = pos;
+                while (pos < end && buf[pos] != '\n' && buf[pos] != '\r') pos++;
+                if (sb == null) sb = new StringBuilder();
+                int take = Math.min(pos - start, max - sb.length());
+                sb.append(buf, start, take);
+                if (take < pos - start) truncated = true;
+                if (pos < end) {
+                    skipLf = buf[pos] == '\r';
+                    pos++;
+                    return sb.toString();
+                }
+            }
+        }
+    }
+
+    // NAME;PARAM=VALUE;PARAM="QUOTED:VALUE":VALUE
+    static Property parse(String line) {
+        int len = line.length();
+        int i = 0;
+        while (i < len && line.charAt(i) != ';' && line.charAt(i) != ':') i++;
+        if (i == len) return null;
+        String name = line.substring(0, i).toUpperCase();
+        Map<String, String> params = Map.of();
+        while (i < len && line.charAt(i) == ';') {
+            int keyStart = ++i;
+            while (i < len && line.charAt(i) != '=' && line.charAt(i) != ';' && line.charAt(i) != ':') i++;
+            String key = line.substring(keyStart, i).toUpperCase();
+            String value = "";
+            if (i < len && line.charAt(i) == '=') {
+                i++;
+                StringBuilder v = new StringBuilder();
+                boolean quoted = false;
+                while (i < len) {
+                    char c = line.charAt(i);
+                    if (c == '"') quoted = !quoted;
+                    else if (!quoted && (c == ';' || c == ':')) break;
+                    else v.append(c);
+                    i++;
+                }
+                value = v.toString();
+            }
+            if (params.isEmpty()) params = new HashMap<>();
+            params.put(key, value);
+        }
+        if (i >= len || line.charAt(i) != ':') return null;
+        return new Property(name, params, line.substring(i + 1));
+    }
+
+    // TEXT 값의 escape 해제 (\n, \, \; \\)
+    static String unescape(String value) {
+        if (value == null || value.indexOf('\\') < 0) return value;
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char n = value.charAt(++i);
+                sb.append(n == 'n' || n == 'N' ? '\n' : n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
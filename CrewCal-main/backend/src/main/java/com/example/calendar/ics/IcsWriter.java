@@ -0,0 +1,122 @@
+package com.example.calendar.ics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+// RFC 5545 출력: CRLF 줄바꿈, 75 octet 에서 줄 접기, TEXT 값 escape.
+// 시각은 UTC(…Z)로, 종일 일정은 zone 기준 날짜(VALUE=DATE)로 쓴다.
+public final class IcsWriter {
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter UTC_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Writer out;
+    private final ZoneId zone;
+
+    public IcsWriter(Writer out, ZoneId zone) {
+        this.out = out;
+        this.zone = zone;
+    }
+
+    public void beginCalendar(String name) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//CrewCal//Calendar Feed//EN");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        line("X-WR-CALNAME:" + text(name));
+    }
+
+    public void endCalendar() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    // busyOnly: FREEBUSY 권한이면 제목/메모를 숨긴다
+    public void event(FeedRepository.FeedEvent e, boolean busyOnly) throws IOException {
+        long uidId = e.seriesId() != null ? e.seriesId() : e.id();
+        line("BEGIN:VEVENT");
+        line("UID:event-" + uidId + "@crewcal");
+        line("DTSTAMP:" + utc(e.updatedAt()));
+        if (e.allDay()) {
+            LocalDate start = date(e.startAt());
+            LocalDate end = endDate(e.endAt());
+            line("DTSTART;VALUE=DATE:" + DATE.format(start));
+            line("DTEND;VALUE=DATE:" + DATE.format(end.isAfter(start) ? end : start.plusDays(1)));
+        } else {
+            line("DTSTART:" + utc(e.startAt()));
+            line("DTEND:" + utc(e.endAt()));
+        }
+        if (e.rrule() != null) {
+            line(e.rrule().startsWith("RRULE:") ? e.rrule() : "RRULE:" + e.rrule());
+            for (OffsetDateTime exdate : e.exdates()) {
+                line(e.allDay() ? "EXDATE;VALUE=DATE:" + DATE.format(date(exdate)) : "EXDATE:" + utc(exdate));
+            }
+        }
+        if (e.originalStartAt() != null) {
+            line(e.allDay()
+                    ? "RECURRENCE-ID;VALUE=DATE:" + DATE.format(date(e.originalStartAt()))
+                    : "RECURRENCE-ID:" + utc(e.originalStartAt()));
+        }
+        line("SUMMARY:" + text(busyOnly ? "Busy" : e.title()));
+        if (!busyOnly && e.note() != null && !e.note().isEmpty()) line("DESCRIPTION:" + text(e.note()));
+        line("TRANSP:OPAQUE");
+        line("END:VEVENT");
+    }
+
+    private LocalDate date(OffsetDateTime t) {
+        return t.atZoneSameInstant(zone).toLocalDate();
+    }
+
+    // DTEND 는 배타적이므로 자정이 아닌 끝 시각은 다음 날로 올린다
+    private LocalDate endDate(OffsetDateTime t) {
+        var local = t.atZoneSameInstant(zone);
+        return local.toLocalTime().equals(LocalTime.MIDNIGHT) ? local.toLocalDate() : local.toLocalDate().plusDays(1);
+    }
+
+    private static String utc(OffsetDateTime t) {
+        return UTC_TIME.format(t.withOffsetSameInstant(ZoneOffset.UTC));
+    }
+
+    static String text(String value) {
+        if (value == null) return "";
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case ';' -> sb.append("\\;");
+                case ',' -> sb.append("\\,");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> { }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // 75 octet(UTF-8) 을 넘으면 CRLF + 공백으로 접는다. 멀티바이트 문자는 자르지 않는다
+    private void line(String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int cp = content.codePointAt(i);
+            int chars = Character.charCount(cp);
+            int bytes = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+            if (octets + bytes > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(content, i, chars);
+            octets += bytes;
+            i += chars;
+        }
+        out.write("\r\n");
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.calendar.reminder;
+
+import java.time.OffsetDateTime;
+
+public record DueReminder(
+        long reminderId,
+        long eventId,
+        long calendarId,
+        String title,
+        OffsetDateTime startAt,
+        OffsetDateTime fireAt,
+        String method
+) {}
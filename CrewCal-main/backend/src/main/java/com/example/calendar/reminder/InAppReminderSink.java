@@ -0,0 +1,29 @@
+package com.example.calendar.reminder;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// 캘린더 멤버(FREEBUSY 제외)의 reminder_inbox 에 넣는다
+@Component
+public class InAppReminderSink implements ReminderSink {
+    private final JdbcTemplate jdbc;
+
+    public InAppReminderSink(JdbcTemplate jdbc) { this.jdbc = jdbc; }
+
+    @Override
+    public String method() { return "IN_APP"; }
+
+    @Override
+    public void deliver(List<DueReminder> reminders) {
+        jdbc.batchUpdate(
+                "insert into reminder_inbox (user_id, event_id, calendar_id, title, start_at, fire_at) " +
+                "select cm.user_id, ?, ?, ?, ?, ? from calendar_members cm where cm.calendar_id = ? and cm.role <> 'FREEBUSY' " +
+                "on conflict (user_id, event_id, fire_at) do nothing",
+                reminders.stream().map(r -> new Object[]{
+                        r.eventId(), r.calendarId(), r.title(), r.startAt(), r.fireAt(), r.calendarId()
+                }).toList()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.calendar.reminder;
+
+import com.example.calendar.common.security.AuthUtil;
+import com.example.calendar.common.security.UserPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+public class ReminderController {
+    private final ReminderDispatchRepository repository;
+
+    public ReminderController(ReminderDispatchRepository repository) { this.repository = repository; }
+
+    @GetMapping("/reminders/inbox")
+    public List<ReminderDispatchRepository.InboxItem> inbox(@RequestParam(defaultValue = "50") int limit) {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        return repository.inbox(p.userId(), Math.min(Math.max(limit, 1), 200));
+    }
+
+    @PostMapping("/reminders/inbox/{inboxId}/read")
+    public void markRead(@PathVariable long inboxId) {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        repository.markRead(p.userId(), inboxId);
+    }
+}
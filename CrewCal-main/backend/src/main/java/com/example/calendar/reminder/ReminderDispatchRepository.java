@@ -0,0 +1,175 @@
+package com.example.calendar.reminder;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public class ReminderDispatchRepository {
+    private final JdbcTemplate jdbc;
+
+    public ReminderDispatchRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
+
+    public record Claimed(long reminderId, OffsetDateTime fireAt) {}
+
+    // 반복 시리즈면 rrule/seriesStart/recurUntil 과 이번 회차(occurrenceAt)로 다음 회차를 계산한다.
+    // cancelled 면 이번 회차는 취소된 것 (제목/시각만 바꾼 회차는 due 에 바뀐 값이 들어 있다)
+    public record Fired(
+            DueReminder due,
+            int minutesBefore,
+            String rrule,
+            OffsetDateTime seriesStart,
+            OffsetDateTime recurUntil,
+            OffsetDateTime occurrenceAt,
+            boolean cancelled
+    ) {}
+
+    // 울릴 시간을 maxLateness 보다 넘겨 claim 되지 않는 반복 시리즈 알림
+    public record Stale(long reminderId, int minutesBefore, String rrule, OffsetDateTime seriesStart, OffsetDateTime recurUntil) {}
+
+    public record InboxItem(
+            long id,
+            long eventId,
+            long calendarId,
+            String title,
+            String startAt,
+            String fireAt,
+            boolean read
+    ) {}
+
+    private static final RowMapper<DueReminder> DUE = (rs, i) -> new DueReminder(
+            rs.getLong("id"),
+            rs.getLong("event_id"),
+            rs.getLong("calendar_id"),
+            rs.getString("title"),
+            rs.getObject("start_at", OffsetDateTime.class),
+            rs.getObject("fire_at", OffsetDateTime.class),
+            rs.getString("method")
+    );
+
+    // 여러 인스턴스가 동시에 돌려도 skip locked 로 서로 다른 행을 가져간다
+    public List<Claimed> claimDue(String owner, int horizonSeconds, int maxLatenessSeconds, int leaseSeconds, int limit) {
+        return jdbc.query(
+                "update event_reminders r set claimed_by = ?, claimed_until = now() + make_interval(secs => ?) " +
+                "where r.id in (" +
+                "  select id from event_reminders " +
+                "  where fired_at is null " +
+                "    and fire_at <= now() + make_interval(secs => ?) and fire_at > now() - make_interval(secs => ?) " +
+                "    and (claimed_until is null or claimed_until < now()) " +
+                "  order by fire_at limit ? for update skip locked" +
+                ") returning r.id, r.fire_at",
+                (rs, i) -> new Claimed(rs.getLong("id"), rs.getObject("fire_at", OffsetDateTime.class)),
+                owner, leaseSeconds, horizonSeconds, maxLatenessSeconds, limit
+        );
+    }
+
+    // 아직 이 인스턴스가 claim 하고 있고 fire_at 이 wheel 에 올린 시각 그대로인 것만 발송 처리한다.
+    // 그 사이 시각이 바뀐 알림은 같은 인스턴스가 다시 claim 했더라도 이전 시각의 발송이 아무 행도 잡지 못한다 (ms 단위로 비교)
+    // 반복 시리즈의 title/start_at 은 이번 회차 것이다 (예외 행이 있으면 그 값, 없으면 occurrence_at)
+    public List<Fired> markFired(String owner, List<ReminderTimingWheel.Due> due) {
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "with fired as (" +
+                    "  update event_reminders r set fired_at = now() " +
+                    "  from unnest(?::bigint[], ?::bigint[]) as d(id, fire_ms) " +
+                    "  where r.id = d.id and date_trunc('milliseconds', r.fire_at) = timestamptz 'epoch' + d.fire_ms * interval '1 millisecond' " +
+                    "    and r.claimed_by = ? and r.fired_at is null " +
+                    "  returning r.id, r.event_id, r.fire_at, r.method, r.minutes_before, " +
+                    "    coalesce(r.occurrence_at, r.fire_at + make_interval(mins => r.minutes_before)) as occurrence_at" +
+                    ") " +
+                    "select f.id, f.event_id, f.fire_at, f.method, f.minutes_before, f.occurrence_at, e.calendar_id, " +
+                    "coalesce(x.title, e.title) as title, " +
+                    "case when e.rrule is null then e.start_at else coalesce(x.start_at, f.occurrence_at) end as start_at, " +
+                    "e.start_at as series_start, e.rrule, e.recur_until, x.deleted_at is not null as cancelled " +
+                    "from fired f join events e on e.id = f.event_id " +
+                    "left join events x on e.rrule is not null and x.series_id = e.id and x.original_start_at = f.occurrence_at " +
+                    "where e.deleted_at is null");
+            ps.setArray(1, con.createArrayOf("bigint", due.stream().map(ReminderTimingWheel.Due::id).toArray()));
+            ps.setArray(2, con.createArrayOf("bigint", due.stream().map(ReminderTimingWheel.Due::deadlineMillis).toArray()));
+            ps.setString(3, owner);
+            return ps;
+        }, (rs, i) -> new Fired(
+                DUE.mapRow(rs, i),
+                rs.getInt("minutes_before"),
+                rs.getString("rrule"),
+                rs.getObject("series_start", OffsetDateTime.class),
+                rs.getObject("recur_until", OffsetDateTime.class),
+                rs.getObject("occurrence_at", OffsetDateTime.class),
+                rs.getBoolean("cancelled")
+        ));
+    }
+
+    // 반복 알림을 다음 회차로 옮긴다 (row: 회차의 원래 시작 시각, reminder id).
+    // 그 회차만 옮긴 예외 행이 있으면 옮겨진 시작 기준으로 울린다
+    public void reschedule(List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate(
+                "update event_reminders r set occurrence_at = o.at, " +
+                "fire_at = coalesce((select x.start_at from events x where x.series_id = r.event_id " +
+                "  and x.original_start_at = o.at and x.deleted_at is null), o.at) - make_interval(mins => r.minutes_before), " +
+                "fired_at = null, claimed_by = null, claimed_until = null " +
+                "from (select cast(? as timestamptz) as at) o where r.id = ?",
+                rows
+        );
+    }
+
+    // 다운타임/배포 동안 창을 놓친 반복 알림. 다음 회차는 발송할 때만 계산하므로 그냥 두면 시리즈 알림이 영영 멈춘다.
+    // 호출하는 쪽 트랜잭션 안에서 잠그고 reschedule 로 옮긴다 (끝난 시리즈는 제외)
+    public List<Stale> lockStaleRecurring(int maxLatenessSeconds, int limit) {
+        return jdbc.query(
+                "select r.id, r.minutes_before, e.rrule, e.start_at, e.recur_until " +
+                "from event_reminders r join events e on e.id = r.event_id " +
+                "where r.fired_at is null and r.fire_at <= now() - make_interval(secs => ?) " +
+                "  and (r.claimed_until is null or r.claimed_until < now()) " +
+                "  and e.rrule is not null and e.deleted_at is null and (e.recur_until is null or e.recur_until > now()) " +
+                "order by r.fire_at limit ? for update of r skip locked",
+                (rs, i) -> new Stale(
+                        rs.getLong("id"),
+                        rs.getInt("minutes_before"),
+                        rs.getString("rrule"),
+                        rs.getObject("start_at", OffsetDateTime.class),
+                        rs.getObject("recur_until", OffsetDateTime.class)
+                ),
+                maxLatenessSeconds, limit
+        );
+    }
+
+    // 더 울릴 회차가 없는 알림은 발송된 것으로 닫는다 (시리즈를 늘리면 upsert 가 다시 연다)
+    public void close(List<Long> reminderIds) {
+        if (reminderIds.isEmpty()) return;
+        jdbc.update(con -> {
+            PreparedStatement ps = con.prepareStatement("update event_reminders set fired_at = now() where id = any(?)");
+            ps.setArray(1, con.createArrayOf("bigint", reminderIds.toArray()));
+            return ps;
+        });
+    }
+
+    public void releaseClaims(String owner) {
+        jdbc.update("update event_reminders set claimed_by = null, claimed_until = null where claimed_by = ? and fired_at is null", owner);
+    }
+
+    public List<InboxItem> inbox(long userId, int limit) {
+        return jdbc.query(
+                "select id, event_id, calendar_id, title, start_at, fire_at, read_at from reminder_inbox " +
+                "where user_id = ? order by created_at desc limit ?",
+                (rs, i) -> new InboxItem(
+                        rs.getLong("id"),
+                        rs.getLong("event_id"),
+                        rs.getLong("calendar_id"),
+                        rs.getString("title"),
+                        rs.getObject("start_at", OffsetDateTime.class).toString(),
+                        rs.getObject("fire_at", OffsetDateTime.class).toString(),
+                        rs.getObject("read_at", OffsetDateTime.class) != null
+                ),
+                userId, limit
+        );
+    }
+
+    public void markRead(long userId, long inboxId) {
+        jdbc.update("update reminder_inbox set read_at = now() where id = ? and user_id = ? and read_at is null", inboxId, userId);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.calendar.reminder;
+
+import com.example.calendar.event.RecurrenceRule;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// 1) poll: horizon 안에 울릴 알림을 skip locked 로 claim 해서 timing wheel 에 올린다
+// 2) fire: wheel 에서 시간이 된 알림을 발송 처리(fired_at)하고 method 별 sink 로 넘긴다
+// 3) sweep: 창(max-lateness)을 놓친 반복 시리즈 알림을 지금 이후의 회차로 옮긴다
+@Component
+@ConditionalOnProperty(name = "app.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class ReminderDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderDispatcher.class);
+
+    private static final int FIRE_CHUNK = 500;
+
+    private final ReminderDispatchRepository repository;
+    private final TransactionTemplate tx;
+    private final Map<String, ReminderSink> sinks;
+    private final String owner;
+    private final int horizonSeconds;
+    private final int maxLatenessSeconds;
+    private final int batchSize;
+    private final ExecutorService firing;
+    private final ReminderTimingWheel wheel;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong fired = new AtomicLong();
+
+    public ReminderDispatcher(ReminderDispatchRepository repository,
+                              TransactionTemplate tx,
+                              List<ReminderSink> sinks,
+                              @Value("${app.reminders.horizon-seconds:120}") int horizonSeconds,
+                              @Value("${app.reminders.max-lateness-seconds:600}") int maxLatenessSeconds,
+                              @Value("${app.reminders.batch-size:1000}") int batchSize) {
+        this.repository = repository;
+        this.tx = tx;
+        this.sinks = sinks.stream().collect(Collectors.toMap(ReminderSink::method, Function.identity()));
+        this.owner = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.horizonSeconds = horizonSeconds;
+        this.maxLatenessSeconds = maxLatenessSeconds;
+        this.batchSize = batchSize;
+        this.firing = Executors.newFixedThreadPool(2, r -> {
+            Thread t = new Thread(r, "reminder-fire");
+            t.setDaemon(true);
+            return t;
+        });
+        // 1초 tick, 512 슬롯(약 8.5분) - horizon 보다 넉넉하게
+        this.wheel = new ReminderTimingWheel(1000, 512, due -> firing.execute(() -> fire(due)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.poll-interval-ms:5000}")
+    public void poll() {
+        // lease 는 wheel 에 머무는 최대 시간(horizon)보다 길어야 다른 인스턴스가 다시 가져가지 않는다
+        int leaseSeconds = horizonSeconds + 60;
+        List<ReminderDispatchRepository.Claimed> batch;
+        do {
+            batch = repository.claimDue(owner, horizonSeconds, maxLatenessSeconds, leaseSeconds, batchSize);
+            batch.forEach(c -> wheel.schedule(c.reminderId(), c.fireAt().toInstant().toEpochMilli()));
+            claimed.addAndGet(batch.size());
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reminders.sweep-interval-ms:60000}")
+    public void sweepStale() {
+        List<ReminderDispatchRepository.Stale> batch;
+        do {
+            batch = tx.execute(status -> {
+                List<ReminderDispatchRepository.Stale> stale = repository.lockStaleRecurring(maxLatenessSeconds, batchSize);
+                List<Object[]> next = catchUp(stale, OffsetDateTime.now());
+                repository.reschedule(next);
+                Set<Long> moved = next.stream().map(row -> (Long) row[1]).collect(Collectors.toSet());
+                repository.close(stale.stream().map(ReminderDispatchRepository.Stale::reminderId).filter(id -> !moved.contains(id)).toList());
+                return stale;
+            });
+        } while (batch != null && batch.size() == batchSize);
+    }
+
+    // fire_at 이 다시 창 안(now - maxLateness 이후)에 들어오는 첫 회차. 알림이 회차 간격보다 앞서면 여러 회차를 건너뛴다
+    private List<Object[]> catchUp(List<ReminderDispatchRepository.Stale> stale, OffsetDateTime now) {
+        List<Object[]> next = new ArrayList<>();
+        OffsetDateTime windowStart = now.minusSeconds(maxLatenessSeconds);
+        for (var s : stale) {
+            OffsetDateTime start = RecurrenceRule.parse(s.rrule())
+                    .nextStartAfter(s.seriesStart(), s.recurUntil(), windowStart.plusMinutes(s.minutesBefore()));
+            if (start != null) next.add(new Object[]{start, s.reminderId()});
+        }
+        return next;
+    }
+
+    void fire(List<ReminderTimingWheel.Due> reminders) {
+        for (int from = 0; from < reminders.size(); from += FIRE_CHUNK) {
+            List<ReminderTimingWheel.Due> chunk = reminders.subList(from, Math.min(from + FIRE_CHUNK, reminders.size()));
+            try {
+                tx.executeWithoutResult(status -> {
+                    List<ReminderDispatchRepository.Fired> rows = repository.markFired(owner, chunk);
+                    List<DueReminder> due = rows.stream()
+                            .filter(f -> !f.cancelled())
+                            .map(ReminderDispatchRepository.Fired::due)
+                            .toList();
+                    due.stream().collect(Collectors.groupingBy(DueReminder::method)).forEach((method, items) -> {
+                        ReminderSink sink = sinks.get(method);
+                        if (sink == null) {
+                            log.warn("No reminder sink for method {}, dropping {} reminders", method, items.size());
+                            return;
+                        }
+                        sink.deliver(items);
+                    });
+                    repository.reschedule(nextOccurrences(rows));
+                    fired.addAndGet(due.size());
+                });
+            } catch (RuntimeException e) {
+                // claim 이 만료되면 다른(또는 같은) 인스턴스가 다시 가져간다
+                log.warn("Failed to fire {} reminders", chunk.size(), e);
+            }
+        }
+    }
+
+    // 반복 시리즈 알림은 발송 후 다음 회차로 되돌려 놓는다 (취소된 회차도 다음으로 넘김).
+    // 회차를 옮긴 경우 due.startAt 은 옮겨진 시각이므로 원래 회차(occurrenceAt) 기준으로 다음을 찾는다
+    private static List<Object[]> nextOccurrences(List<ReminderDispatchRepository.Fired> rows) {
+        List<Object[]> next = new ArrayList<>();
+        for (var f : rows) {
+            if (f.rrule() == null) continue;
+            OffsetDateTime start = RecurrenceRule.parse(f.rrule())
+                    .nextStartAfter(f.seriesStart(), f.recurUntil(), f.occurrenceAt());
+            if (start != null) next.add(new Object[]{start, f.due().reminderId()});
+        }
+        return next;
+    }
+
+    public long claimedCount() { return claimed.get(); }
+
+    public long firedCount() { return fired.get(); }
+
+    public int scheduledCount() { return wheel.pendingCount(); }
+
+    @PreDestroy
+    public void stop() {
+        wheel.stop();
+        firing.shutdown();
+        try {
+            repository.releaseClaims(owner);
+        } catch (RuntimeException e) {
+            log.debug("Could not release reminder claims of {}", owner, e);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
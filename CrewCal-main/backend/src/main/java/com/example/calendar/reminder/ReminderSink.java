@@ -0,0 +1,12 @@
+package com.example.calendar.reminder;
+
+import java.util.List;
+
+// 알림 전달 방식 (event_reminders.method 값 하나당 구현 하나)
+public interface ReminderSink {
+
+    String method();
+
+    // 발송 처리 트랜잭션 안에서 호출된다. 예외를 던지면 claim이 만료된 뒤 다시 시도된다.
+    void deliver(List<DueReminder> reminders);
+}
@@ -0,0 +1,115 @@
+package com.example.calendar.reminder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+// 곧 울릴 알림을 메모리에 들고 있는 hashed timing wheel.
+// 슬롯은 tick 스레드만 만지고, 다른 스레드는 incoming 큐에 넣기만 한다.
+// 같은 id 는 가장 최근 deadline 으로 한 번만 울린다 (시각이 바뀌면 이전 항목은 슬롯에 남아 있다가 버려진다)
+public class ReminderTimingWheel {
+
+    // markFired 가 fire_at 까지 비교할 수 있도록 어떤 시각으로 울렸는지 같이 넘긴다
+    public record Due(long id, long deadlineMillis) {}
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderTimingWheel.class);
+
+    // tick: deadline 이 들어 있는 tick 의 끝 (올림). 그 tick 을 처리할 때 울린다
+    private record Entry(long id, long deadlineMillis, long tick) {}
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final ArrayDeque<Entry>[] slots;
+    private final Queue<Entry> incoming = new ConcurrentLinkedQueue<>();
+    // id -> 현재 유효한 deadline
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final Consumer<List<Due>> onDue;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService ticker;
+    private long currentTick;
+
+    public ReminderTimingWheel(long tickMillis, int wheelSize, Consumer<List<Due>> onDue) {
+        this(tickMillis, wheelSize, onDue, System::currentTimeMillis, true);
+    }
+
+    // 테스트는 clock 을 직접 움직이고 start=false 로 advance() 를 손으로 부른다
+    @SuppressWarnings("unchecked")
+    ReminderTimingWheel(long tickMillis, int wheelSize, Consumer<List<Due>> onDue, LongSupplier clock, boolean start) {
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+        this.slots = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) slots[i] = new ArrayDeque<>();
+        this.onDue = onDue;
+        if (!start) {
+            this.ticker = null;
+            return;
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "reminder-wheel");
+            t.setDaemon(true);
+            return t;
+        });
+        ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // 같은 (id, deadline) 이 이미 예약돼 있으면 false. deadline 이 다르면 새 시각으로 바꾼다
+    public boolean schedule(long id, long deadlineMillis) {
+        Long previous = pending.put(id, deadlineMillis);
+        if (previous != null && previous == deadlineMillis) return false;
+        incoming.add(new Entry(id, deadlineMillis, Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis)));
+        return true;
+    }
+
+    public int pendingCount() { return pending.size(); }
+
+    public void stop() {
+        if (ticker != null) ticker.shutdownNow();
+    }
+
+    void advance() {
+        long now = clock.getAsLong();
+        long targetTick = (now - startMillis) / tickMillis;
+
+        for (Entry e; (e = incoming.poll()) != null; ) {
+            long tick = Math.max(e.tick(), currentTick);
+            slots[(int) (tick % slots.length)].add(e);
+        }
+
+        List<Due> due = new ArrayList<>();
+        while (currentTick <= targetTick) {
+            ArrayDeque<Entry> slot = slots[(int) (currentTick % slots.length)];
+            // 한 바퀴 이상 남은 항목은 같은 슬롯에 다시 넣는다.
+            // now 와 비교하면 같은 tick 안의 뒤쪽 deadline 이 한 바퀴를 더 기다리므로 tick 번호로 비교한다
+            for (int n = slot.size(); n > 0; n--) {
+                Entry e = slot.poll();
+                if (e.tick() <= currentTick) {
+                    // 그 사이 다시 예약돼 deadline 이 바뀐 항목은 버린다
+                    if (pending.remove(e.id(), e.deadlineMillis())) due.add(new Due(e.id(), e.deadlineMillis()));
+                } else {
+                    slot.add(e);
+                }
+            }
+            currentTick++;
+        }
+        if (due.isEmpty()) return;
+        try {
+            onDue.accept(due);
+        } catch (RuntimeException e) {
+            // 여기서 예외가 새면 scheduleAtFixedRate 가 멈춘다. 놓친 알림은 claim 만료 후 다시 잡힌다.
+            log.warn("Failed to hand over {} due reminders", due.size(), e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.calendar.scheduling;
+
+import java.util.Arrays;
+
+// [start, end) 구간 목록 (epoch second). 시작/끝을 각각 long[] 로 들고 있어서 구간마다 객체를 만들지 않는다.
+public final class BusyIntervals {
+
+    private long[] starts;
+    private long[] ends;
+    private int size;
+
+    public BusyIntervals() { this(16); }
+
+    public BusyIntervals(int capacity) {
+        this.starts = new long[Math.max(capacity, 4)];
+        this.ends = new long[Math.max(capacity, 4)];
+    }
+
+    public void add(long start, long end) {
+        if (end <= start) return;
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    public void addAll(BusyIntervals other) {
+        for (int i = 0; i < other.size; i++) add(other.starts[i], other.ends[i]);
+    }
+
+    public int size() { return size; }
+
+    public long start(int i) { return starts[i]; }
+
+    public long end(int i) { return ends[i]; }
+
+    // 겹치거나 맞닿은 구간을 합친 결과 (정렬, 서로소). 원본은 그대로 둔다.
+    // 시작/끝을 따로 정렬한 뒤 sweep 하면서 겹친 개수가 0 -> 1, 1 -> 0 이 되는 지점만 남긴다.
+    public BusyIntervals merged() {
+        long[] s = Arrays.copyOf(starts, size);
+        long[] e = Arrays.copyOf(ends, size);
+        Arrays.sort(s);
+        Arrays.sort(e);
+
+        BusyIntervals out = new BusyIntervals(Math.min(size, 64));
+        int i = 0, j = 0, open = 0;
+        long begin = 0;
+        while (i < size) {
+            // 같은 시각이면 시작을 먼저 처리해서 맞닿은 구간을 하나로 만든다
+            if (s[i] <= e[j]) {
+                if (open++ == 0) begin = s[i];
+                i++;
+            } else {
+                if (--open == 0) out.add(begin, e[j]);
+                j++;
+            }
+        }
+        // 남은 끝 중 마지막 것이 합친 구간의 끝
+        if (size > 0) out.add(begin, e[size - 1]);
+        return out;
+    }
+
+    // [from, to) 밖은 잘라낸다 (merged 결과에만 사용)
+    public BusyIntervals clip(long from, long to) {
+        BusyIntervals out = new BusyIntervals(size);
+        for (int k = 0; k < size; k++) {
+            out.add(Math.max(starts[k], from), Math.min(ends[k], to));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.calendar.scheduling;
+
+import com.example.calendar.event.EventRepository;
+import com.example.calendar.event.RecurrenceRule;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// free/busy 용 조회: 제목/메모/알림은 읽지 않고 시간 컬럼만 읽는다
+@Repository
+public class BusyRepository {
+    private final JdbcTemplate jdbc;
+
+    public BusyRepository(JdbcTemplate jdbc) { this.jdbc = jdbc; }
+
+    // 대상 사용자가 OWNER/EDITOR 인 캘린더 중 요청자도 멤버인 것 (user id -> calendar ids)
+    public Map<Long, List<Long>> sharedCalendars(long callerId, Collection<Long> userIds) {
+        Map<Long, List<Long>> out = new HashMap<>();
+        if (userIds.isEmpty()) return out;
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select t.user_id, t.calendar_id from calendar_members t " +
+                    "join calendar_members me on me.calendar_id = t.calendar_id and me.user_id = ? " +
+                    "where t.user_id = any(?) and t.role in ('OWNER', 'EDITOR')");
+            ps.setLong(1, callerId);
+            ps.setArray(2, con.createArrayOf("bigint", userIds.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs ->
+                out.computeIfAbsent(rs.getLong("user_id"), k -> new ArrayList<>()).add(rs.getLong("calendar_id")));
+        return out;
+    }
+
+    // 요청한 캘린더 중 요청자가 (권한과 무관하게) 멤버인 것
+    public List<Long> memberCalendars(long callerId, Collection<Long> calendarIds) {
+        if (calendarIds.isEmpty()) return List.of();
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select calendar_id from calendar_members where user_id = ? and calendar_id = any(?)");
+            ps.setLong(1, callerId);
+            ps.setArray(2, con.createArrayOf("bigint", calendarIds.toArray()));
+            return ps;
+        }, (rs, i) -> rs.getLong(1));
+    }
+
+    // 캘린더별 [from, to) 와 겹치는 바쁜 구간 (합치기 전). 반복 시리즈는 구간 안의 회차만 펼친다
+    public Map<Long, BusyIntervals> busyByCalendar(Collection<Long> calendarIds, OffsetDateTime from, OffsetDateTime to) {
+        Map<Long, BusyIntervals> out = new HashMap<>();
+        if (calendarIds.isEmpty()) return out;
+
+        // 겹침은 idx_events_live_span (calendar_id, span) 로 거른다. start_at 조건은 파티션을 거르는 용도
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select calendar_id, start_at, end_at from events " +
+                    "where calendar_id = any(?) and deleted_at is null and rrule is null " +
+                    "and span && tstzrange(?, ?, '[)') and start_at < ? and start_at > ?");
+            ps.setArray(1, con.createArrayOf("bigint", calendarIds.toArray()));
+            ps.setObject(2, from);
+            ps.setObject(3, to);
+            ps.setObject(4, to);
+            ps.setObject(5, from.minus(EventRepository.MAX_SPAN));
+            return ps;
+        }, (RowCallbackHandler) rs -> out.computeIfAbsent(rs.getLong(1), k -> new BusyIntervals()).add(
+                rs.getObject(2, OffsetDateTime.class).toEpochSecond(),
+                rs.getObject(3, OffsetDateTime.class).toEpochSecond()));
+
+        jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select e.calendar_id, e.start_at, e.end_at, e.rrule, e.recur_until, " +
+                    "array(select x.original_start_at from events x where x.series_id = e.id " +
+                    "  and x.original_start_at < ? and x.original_start_at + (e.end_at - e.start_at) > ?) as overridden " +
+                    "from events e " +
+                    "where e.calendar_id = any(?) and e.deleted_at is null and e.rrule is not null and e.start_at < ? " +
+                    "and (e.recur_until is null or e.recur_until + (e.end_at - e.start_at) > ?)");
+            ps.setObject(1, to);
+            ps.setObject(2, from);
+            ps.setArray(3, con.createArrayOf("bigint", calendarIds.toArray()));
+            ps.setObject(4, to);
+            ps.setObject(5, from);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            BusyIntervals busy = out.computeIfAbsent(rs.getLong("calendar_id"), k -> new BusyIntervals());
+            OffsetDateTime start = rs.getObject("start_at", OffsetDateTime.class);
+            long duration = rs.getObject("end_at", OffsetDateTime.class).toEpochSecond() - start.toEpochSecond();
+            long[] overridden = epochSeconds(rs.getArray("overridden"));
+            RecurrenceRule.parse(rs.getString("rrule")).expand(start, duration,
+                    rs.getObject("recur_until", OffsetDateTime.class), from, to, t -> {
+                        if (Arrays.binarySearch(overridden, t) < 0) busy.add(t, t + duration);
+                    });
+        });
+        return out;
+    }
+
+    private static long[] epochSeconds(Array array) throws SQLException {
+        if (array == null) return new long[0];
+        Object[] values = (Object[]) array.getArray();
+        long[] out = new long[values.length];
+        for (int k = 0; k < values.length; k++) {
+            out[k] = ((Timestamp) values[k]).toInstant().getEpochSecond();
+        }
+        Arrays.sort(out);
+        return out;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.calendar.scheduling;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// 참가자별로 합쳐 둔(정렬, 서로소) 바쁜 구간을 k-way merge 해서 만든 "바쁜 사람 수" 계단 함수.
+// counts[k] 는 [times[k], times[k+1]) 동안 바쁜 사람 수, 첫 시각 이전과 마지막 시각 이후는 0.
+final class BusyTimeline {
+
+    private final long[] times;
+    private final int[] counts;
+    private final int size;
+
+    private BusyTimeline(long[] times, int[] counts, int size) {
+        this.times = times;
+        this.counts = counts;
+        this.size = size;
+    }
+
+    // 참가자마다 커서 하나만 두고 힙에서 다음 경계(시작 +1 / 끝 -1)가 가장 이른 참가자를 꺼낸다
+    static BusyTimeline of(List<BusyIntervals> mergedPerUser) {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(Math.max(1, mergedPerUser.size()),
+                (a, b) -> Long.compare(a.time(), b.time()));
+        int boundaries = 0;
+        for (BusyIntervals busy : mergedPerUser) {
+            if (busy.size() == 0) continue;
+            heap.add(new Cursor(busy));
+            boundaries += busy.size() * 2;
+        }
+
+        long[] times = new long[boundaries];
+        int[] counts = new int[boundaries];
+        int size = 0;
+        int busyNow = 0;
+        while (!heap.isEmpty()) {
+            Cursor c = heap.poll();
+            long t = c.time();
+            busyNow += c.isStart() ? 1 : -1;
+            // 같은 시각의 경계는 한 칸으로 합친다 (마지막 값이 그 시각 이후의 바쁜 사람 수)
+            if (size > 0 && times[size - 1] == t) {
+                counts[size - 1] = busyNow;
+            } else {
+                times[size] = t;
+                counts[size] = busyNow;
+                size++;
+            }
+            if (c.advance()) heap.add(c);
+        }
+        return new BusyTimeline(times, counts, size);
+    }
+
+    // [start, end) 동안 동시에 바쁜 최대 인원
+    int maxBusy(long start, long end) {
+        int k = Arrays.binarySearch(times, 0, size, start);
+        if (k < 0) k = -k - 2;
+        int max = k >= 0 ? counts[k] : 0;
+        for (int i = k + 1; i < size && times[i] < end; i++) {
+            if (counts[i] > max) max = counts[i];
+        }
+        return max;
+    }
+
+    private static final class Cursor {
+        private final BusyIntervals busy;
+        // 짝수 = index/2 번째 구간의 시작, 홀수 = 끝
+        private int position;
+
+        Cursor(BusyIntervals busy) { this.busy = busy; }
+
+        long time() {
+            int i = position >> 1;
+            return (position & 1) == 0 ? busy.start(i) : busy.end(i);
+        }
+
+        boolean isStart() { return (position & 1) == 0; }
+
+        boolean advance() { return ++position < busy.size() * 2; }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.calendar.scheduling;
+
+import com.example.calendar.common.metrics.StatementBudget;
+import com.example.calendar.common.security.AuthUtil;
+import com.example.calendar.common.security.UserPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+public class FreeBusyController {
+    private final FreeBusyService freeBusyService;
+
+    public FreeBusyController(FreeBusyService freeBusyService) {
+        this.freeBusyService = freeBusyService;
+    }
+
+    // 합쳐진 바쁜 구간만 돌려준다 (제목/메모 없음)
+    @StatementBudget(4)
+    @GetMapping("/freebusy")
+    public SchedulingDtos.FreeBusyResponse freeBusy(@RequestParam(required = false) String userIds,
+                                                    @RequestParam(required = false) String calendarIds,
+                                                    @RequestParam String from, @RequestParam String to) {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        return freeBusyService.freeBusy(p, parseIds(userIds), parseIds(calendarIds), from, to);
+    }
+
+    static List<Long> parseIds(String ids) {
+        if (ids == null) return List.of();
+        return Arrays.stream(ids.split(","))
+                .map(String::trim).filter(s -> !s.isEmpty())
+                .map(Long::parseLong).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.calendar.scheduling;
+
+import com.example.calendar.common.exception.ApiException;
+import com.example.calendar.common.security.UserPrincipal;
+import com.example.calendar.event.EventService;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class FreeBusyService {
+
+    // 요청 하나의 사용자/캘린더 id 상한 (find-slots 의 participantIds 도 같은 값)
+    static final int MAX_IDS = 200;
+    static final Duration MAX_RANGE = Duration.ofDays(366);
+
+    private final BusyRepository busyRepository;
+
+    public FreeBusyService(BusyRepository busyRepository) {
+        this.busyRepository = busyRepository;
+    }
+
+    // userIds: 요청자와 공유하는 캘린더(대상이 OWNER/EDITOR) 기준, calendarIds: 요청자가 멤버인 캘린더만
+    public SchedulingDtos.FreeBusyResponse freeBusy(UserPrincipal principal, List<Long> userIds, List<Long> calendarIds,
+                                                    String fromIso, String toIso) {
+        OffsetDateTime from = EventService.parseIso(fromIso);
+        OffsetDateTime to = EventService.parseIso(toIso);
+        validateWindow(from, to);
+        if (userIds.isEmpty() && calendarIds.isEmpty()) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "userIds or calendarIds is required");
+        }
+        if (userIds.size() > MAX_IDS || calendarIds.size() > MAX_IDS) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "At most " + MAX_IDS + " ids per request");
+        }
+
+        Map<Long, List<Long>> calendarsOfUser = busyRepository.sharedCalendars(principal.userId(), userIds);
+        List<Long> visibleCalendars = busyRepository.memberCalendars(principal.userId(), calendarIds);
+
+        Set<Long> needed = new HashSet<>(visibleCalendars);
+        calendarsOfUser.values().forEach(needed::addAll);
+        Map<Long, BusyIntervals> byCalendar = busyRepository.busyByCalendar(needed, from, to);
+
+        long fromS = from.toEpochSecond();
+        long toS = to.toEpochSecond();
+        ZoneOffset offset = from.getOffset();
+
+        List<SchedulingDtos.UserBusy> users = new ArrayList<>();
+        for (long userId : new LinkedHashSet<>(userIds)) {
+            BusyIntervals all = new BusyIntervals();
+            for (long calendarId : calendarsOfUser.getOrDefault(userId, List.of())) {
+                BusyIntervals busy = byCalendar.get(calendarId);
+                if (busy != null) all.addAll(busy);
+            }
+            users.add(new SchedulingDtos.UserBusy(userId, toDto(all.merged().clip(fromS, toS), offset)));
+        }
+
+        List<SchedulingDtos.CalendarBusy> calendars = new ArrayList<>();
+        for (long calendarId : visibleCalendars) {
+            BusyIntervals busy = byCalendar.getOrDefault(calendarId, new BusyIntervals(0));
+            calendars.add(new SchedulingDtos.CalendarBusy(calendarId, toDto(busy.merged().clip(fromS, toS), offset)));
+        }
+        return new SchedulingDtos.FreeBusyResponse(from.toString(), to.toString(), users, calendars);
+    }
+
+    static void validateWindow(OffsetDateTime from, OffsetDateTime to) {
+        if (!to.isAfter(from)) throw new ApiException(HttpStatus.BAD_REQUEST, "to must be after from");
+        if (Duration.between(from, to).compareTo(MAX_RANGE) > 0) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Range must be at most " + MAX_RANGE.toDays() + " days");
+        }
+    }
+
+    // 응답 시각은 요청한 from 의 offset 으로 맞춘다
+    static List<SchedulingDtos.BusyInterval> toDto(BusyIntervals merged, ZoneOffset offset) {
+        List<SchedulingDtos.BusyInterval> out = new ArrayList<>(merged.size());
+        for (int i = 0; i < merged.size(); i++) {
+            out.add(new SchedulingDtos.BusyInterval(format(merged.start(i), offset), format(merged.end(i), offset)));
+        }
+        return out;
+    }
+
+    static String format(long epochSecond, ZoneOffset offset) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), offset).toString();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.calendar.scheduling;
+
+import com.example.calendar.common.metrics.StatementBudget;
+import com.example.calendar.common.security.AuthUtil;
+import com.example.calendar.common.security.UserPrincipal;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class SchedulingController {
+    private final SlotFinderService slotFinderService;
+
+    public SchedulingController(SlotFinderService slotFinderService) {
+        this.slotFinderService = slotFinderService;
+    }
+
+    // 공유 캘린더 + 바쁜 구간(단일 일정 + 반복 시리즈). 캘린더가 25개 미만이면 요청 스레드에서 읽으므로 3.
+    // 그보다 많아 묶음으로 나눠 병렬로 읽을 때는 다른 스레드의 문장이라 여기에 세지 않는다
+    // (그 경우 동시 커넥션 수는 app.scheduling.fetch-parallelism 으로 묶인다)
+    @StatementBudget(3)
+    @PostMapping("/scheduling/find-slots")
+    public SchedulingDtos.FindSlotsResponse findSlots(@Valid @RequestBody SchedulingDtos.FindSlotsRequest req) {
+        UserPrincipal p = AuthUtil.requirePrincipal();
+        return slotFinderService.findSlots(p, req);
+    }
+}
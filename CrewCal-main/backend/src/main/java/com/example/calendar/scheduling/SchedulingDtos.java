@@ -0,0 +1,68 @@
+package com.example.calendar.scheduling;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class SchedulingDtos {
+
+    public record BusyInterval(
+            String start,
+            String end
+    ) {}
+
+    public record UserBusy(
+            long userId,
+            List<BusyInterval> busy
+    ) {}
+
+    public record CalendarBusy(
+            long calendarId,
+            List<BusyInterval> busy
+    ) {}
+
+    public record FreeBusyResponse(
+            String from,
+            String to,
+            List<UserBusy> users,
+            List<CalendarBusy> calendars
+    ) {}
+
+    // start/end: "HH:mm" (end <= start 이면 다음 날까지 - 야간 근무), days: MON..SUN (기본 MON-FRI), timeZone: 기본은 from 의 offset
+    public record WorkingHours(
+            @NotBlank String start,
+            @NotBlank String end,
+            List<String> days,
+            String timeZone
+    ) {}
+
+    // 참가자 조회는 /freebusy 의 userIds 와 같은 상한을 쓴다 (any(?) 배열 크기와 사용자별 부분 슬롯 계산이 여기에 비례)
+    public record FindSlotsRequest(
+            @NotEmpty @Size(max = FreeBusyService.MAX_IDS) List<@NotNull Long> participantIds,
+            @NotNull @Min(5) @Max(1440) Integer durationMinutes,
+            @NotBlank String from,
+            @NotBlank String to,
+            @Valid WorkingHours workingHours,
+            @Min(5) @Max(240) Integer stepMinutes,
+            @Min(1) @Max(50) Integer limit
+    ) {}
+
+    public record Slot(
+            String start,
+            String end,
+            int available,
+            List<Long> unavailableUserIds
+    ) {}
+
+    // unknownUserIds: 요청자와 공유하는 캘린더가 없어 일정을 알 수 없는 참가자 (항상 가능한 것으로 계산)
+    public record FindSlotsResponse(
+            List<Slot> slots,
+            List<Long> unknownUserIds
+    ) {}
+}
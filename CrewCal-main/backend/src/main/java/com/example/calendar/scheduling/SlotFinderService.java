@@ -0,0 +1,229 @@
+package com.example.calendar.scheduling;
+
+import com.example.calendar.common.exception.ApiException;
+import com.example.calendar.common.security.UserPrincipal;
+import com.example.calendar.event.EventService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// 참가자 전원(또는 최대한 많은 인원)이 가능한 회의 시간 후보를 찾는다.
+// 1) 참가자 캘린더의 바쁜 구간을 캘린더 묶음 단위로 병렬 조회
+// 2) 참가자별로 합친 뒤 k-way merge 로 "바쁜 사람 수" timeline 을 만든다
+// 3) 근무 시간 안의 후보 slot 을 step 간격으로 훑어서 (불참 인원, 시작 시각) 순으로 고른다
+@Service
+public class SlotFinderService {
+
+    private static final int DEFAULT_STEP_MINUTES = 15;
+    private static final int DEFAULT_LIMIT = 10;
+    // 이보다 작은 묶음으로는 나누지 않는다 (쿼리 왕복이 더 비쌈)
+    private static final int MIN_CALENDARS_PER_FETCH = 25;
+    private static final Set<DayOfWeek> WEEKDAYS = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+
+    private final BusyRepository busyRepository;
+    private final int fetchParallelism;
+    private final ExecutorService fetchers = Executors.newVirtualThreadPerTaskExecutor();
+
+    // 동시 조회 수는 커넥션 풀 크기보다 작게 둔다
+    public SlotFinderService(BusyRepository busyRepository,
+                             @Value("${app.scheduling.fetch-parallelism:4}") int fetchParallelism) {
+        this.busyRepository = busyRepository;
+        this.fetchParallelism = Math.max(1, fetchParallelism);
+    }
+
+    public SchedulingDtos.FindSlotsResponse findSlots(UserPrincipal principal, SchedulingDtos.FindSlotsRequest req) {
+        OffsetDateTime from = EventService.parseIso(req.from());
+        OffsetDateTime to = EventService.parseIso(req.to());
+        FreeBusyService.validateWindow(from, to);
+        long fromS = from.toEpochSecond();
+        long toS = to.toEpochSecond();
+        long duration = req.durationMinutes() * 60L;
+        long step = (req.stepMinutes() != null ? req.stepMinutes() : DEFAULT_STEP_MINUTES) * 60L;
+        int limit = req.limit() != null ? req.limit() : DEFAULT_LIMIT;
+        ZoneId zone = zoneOf(req.workingHours(), from);
+        List<long[]> windows = workingWindows(req.workingHours(), zone, from, to);
+
+        List<Long> participants = new ArrayList<>(new LinkedHashSet<>(req.participantIds()));
+        Map<Long, List<Long>> calendarsOfUser = busyRepository.sharedCalendars(principal.userId(), participants);
+        Map<Long, BusyIntervals> byCalendar = fetchBusy(calendarsOfUser, from, to);
+
+        List<Long> unknown = new ArrayList<>();
+        List<BusyIntervals> mergedPerUser = new ArrayList<>(participants.size());
+        for (long userId : participants) {
+            List<Long> calendars = calendarsOfUser.get(userId);
+            if (calendars == null) unknown.add(userId);
+            BusyIntervals all = new BusyIntervals();
+            if (calendars != null) {
+                for (long calendarId : calendars) {
+                    BusyIntervals busy = byCalendar.get(calendarId);
+                    if (busy != null) all.addAll(busy);
+                }
+            }
+            mergedPerUser.add(all.merged().clip(fromS, toS));
+        }
+        BusyTimeline timeline = BusyTimeline.of(mergedPerUser);
+
+        // 전원 가능한 slot 이 limit 개 이상이면 불참자 계산 없이 가장 이른 것들로 끝낸다
+        List<Long> freeStarts = new ArrayList<>();
+        List<Long> partialStarts = new ArrayList<>();
+        for (long[] w : windows) {
+            for (long s = w[0]; s + duration <= w[1]; s += step) {
+                if (timeline.maxBusy(s, s + duration) == 0) {
+                    freeStarts.add(s);
+                } else {
+                    partialStarts.add(s);
+                }
+            }
+        }
+
+        List<SchedulingDtos.Slot> slots = new ArrayList<>(limit);
+        for (int i = 0; i < freeStarts.size() && slots.size() < limit; i++) {
+            long s = freeStarts.get(i);
+            slots.add(new SchedulingDtos.Slot(format(s, zone), format(s + duration, zone), participants.size(), List.of()));
+        }
+        if (slots.size() < limit && !partialStarts.isEmpty()) {
+            record Ranked(long start, List<Long> unavailable) {}
+            List<Ranked> ranked = new ArrayList<>(partialStarts.size());
+            for (long s : partialStarts) {
+                ranked.add(new Ranked(s, unavailable(participants, mergedPerUser, s, s + duration)));
+            }
+            ranked.sort(Comparator.<Ranked>comparingInt(r -> r.unavailable().size()).thenComparingLong(Ranked::start));
+            for (int i = 0; i < ranked.size() && slots.size() < limit; i++) {
+                var r = ranked.get(i);
+                // 아무도 못 오는 시간은 후보가 아니다
+                if (r.unavailable().size() == participants.size()) break;
+                slots.add(new SchedulingDtos.Slot(format(r.start(), zone), format(r.start() + duration, zone),
+                        participants.size() - r.unavailable().size(), r.unavailable()));
+            }
+        }
+        return new SchedulingDtos.FindSlotsResponse(slots, unknown);
+    }
+
+    // 캘린더를 몇 묶음으로 나눠 virtual thread 에서 동시에 조회한다 (묶음마다 커넥션 하나)
+    private Map<Long, BusyIntervals> fetchBusy(Map<Long, List<Long>> calendarsOfUser, OffsetDateTime from, OffsetDateTime to) {
+        List<Long> calendars = calendarsOfUser.values().stream().flatMap(List::stream).distinct().toList();
+        int chunks = Math.min(fetchParallelism, Math.max(1, calendars.size() / MIN_CALENDARS_PER_FETCH));
+        if (chunks <= 1) return busyRepository.busyByCalendar(calendars, from, to);
+
+        int chunkSize = (calendars.size() + chunks - 1) / chunks;
+        List<Future<Map<Long, BusyIntervals>>> futures = new ArrayList<>(chunks);
+        for (int i = 0; i < calendars.size(); i += chunkSize) {
+            List<Long> chunk = calendars.subList(i, Math.min(i + chunkSize, calendars.size()));
+            futures.add(fetchers.submit(() -> busyRepository.busyByCalendar(chunk, from, to)));
+        }
+        Map<Long, BusyIntervals> out = new HashMap<>();
+        try {
+            for (var f : futures) out.putAll(f.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new ApiException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+        return out;
+    }
+
+    // [start, end) 와 겹치는 바쁜 구간이 있는 참가자 (참가자별 구간은 정렬돼 있으므로 끝 시각으로 이분 탐색)
+    private static List<Long> unavailable(List<Long> participants, List<BusyIntervals> mergedPerUser, long start, long end) {
+        List<Long> out = new ArrayList<>();
+        for (int u = 0; u < participants.size(); u++) {
+            BusyIntervals busy = mergedPerUser.get(u);
+            int lo = 0, hi = busy.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (busy.end(mid) <= start) lo = mid + 1; else hi = mid;
+            }
+            if (lo < busy.size() && busy.start(lo) < end) out.add(participants.get(u));
+        }
+        return out;
+    }
+
+    private static ZoneId zoneOf(SchedulingDtos.WorkingHours hours, OffsetDateTime from) {
+        if (hours == null || hours.timeZone() == null || hours.timeZone().isBlank()) return from.getOffset();
+        try {
+            return ZoneId.of(hours.timeZone());
+        } catch (DateTimeException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid timeZone: " + hours.timeZone());
+        }
+    }
+
+    // 근무 시간 구간들 [start, end) (epoch second), [from, to) 로 잘라서 시간 순
+    private static List<long[]> workingWindows(SchedulingDtos.WorkingHours hours, ZoneId zone,
+                                               OffsetDateTime from, OffsetDateTime to) {
+        long fromS = from.toEpochSecond();
+        long toS = to.toEpochSecond();
+        if (hours == null) return List.<long[]>of(new long[]{fromS, toS});
+
+        LocalTime start = parseTime(hours.start());
+        LocalTime end = parseTime(hours.end());
+        Set<DayOfWeek> days = hours.days() == null || hours.days().isEmpty() ? WEEKDAYS : parseDays(hours.days());
+
+        List<long[]> out = new ArrayList<>();
+        // 야간 근무는 전날 시작분이 from 안으로 들어올 수 있으므로 하루 앞부터 본다
+        LocalDate last = to.atZoneSameInstant(zone).toLocalDate();
+        for (LocalDate d = from.atZoneSameInstant(zone).toLocalDate().minusDays(1); !d.isAfter(last); d = d.plusDays(1)) {
+            if (!days.contains(d.getDayOfWeek())) continue;
+            long ws = d.atTime(start).atZone(zone).toEpochSecond();
+            long we = (end.isAfter(start) ? d : d.plusDays(1)).atTime(end).atZone(zone).toEpochSecond();
+            ws = Math.max(ws, fromS);
+            we = Math.min(we, toS);
+            if (ws < we) out.add(new long[]{ws, we});
+        }
+        return out;
+    }
+
+    private static LocalTime parseTime(String value) {
+        try {
+            return LocalTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid time (HH:mm): " + value);
+        }
+    }
+
+    private static Set<DayOfWeek> parseDays(List<String> values) {
+        Set<DayOfWeek> out = EnumSet.noneOf(DayOfWeek.class);
+        for (String v : values) {
+            String name = v == null ? "" : v.trim().toUpperCase();
+            DayOfWeek day = name.length() < 3 ? null : Arrays.stream(DayOfWeek.values())
+                    .filter(d -> d.name().startsWith(name)).findFirst().orElse(null);
+            if (day == null) throw new ApiException(HttpStatus.BAD_REQUEST, "Invalid day: " + v);
+            out.add(day);
+        }
+        return out;
+    }
+
+    private static String format(long epochSecond, ZoneId zone) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone).toString();
+    }
+
+    @PreDestroy
+    public void stop() {
+        fetchers.shutdownNow();
+    }
+}
@@ -0,0 +1,9 @@
+-- 외부 캘린더(Outlook/Google) 구독용 피드 토큰. 멤버마다 캘린더당 하나, 행을 지우면 폐기
+-- 피드 내용은 토큰을 만든 멤버의 현재 권한을 따른다 (멤버에서 빠지면 피드도 막힘)
+create table if not exists calendar_feed_tokens (
+  calendar_id bigint not null references calendars(id) on delete cascade,
+  user_id bigint not null references users(id) on delete cascade,
+  token varchar(64) unique not null,
+  created_at timestamptz not null default now(),
+  primary key (calendar_id, user_id)
+);
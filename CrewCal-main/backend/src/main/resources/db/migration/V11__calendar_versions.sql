@@ -0,0 +1,3 @@
+-- 캘린더 단위 변경 카운터. 이벤트/멤버/캘린더를 바꾸는 문장이 같은 트랜잭션에서 1씩 올린다
+-- GET /calendars, GET /events 의 ETag 를 events 를 읽지 않고 계산하는 데 쓴다
+alter table calendars add column if not exists version bigint not null default 1;
@@ -0,0 +1,178 @@
+-- events 를 start_at 기준 월 단위 range 파티션으로 바꾼다.
+-- 구간 조회(start_at < to and start_at > from - 최대 길이)가 해당 월 파티션만 읽고,
+-- 오래된 행은 파티션째 작아지거나 events_archive 로 옮겨진다 (EventArchiveJob).
+--
+-- 파티션 테이블의 unique/PK 에는 파티션 키가 들어가야 하므로:
+--   * PK 는 (id, start_at). id 는 지금처럼 events_id_seq 에서만 받으므로 여전히 유일하다
+--   * events(id) 를 가리키던 FK(event_reminders, reminder_inbox, events.series_id)는 없앤다.
+--     이벤트는 soft delete 라 지워지는 경우는 캘린더 삭제(cascade)와 아카이브뿐이고, 둘 다 아래에서 직접 정리한다
+--   * 회차 예외의 (series_id, original_start_at) 유일성은 event_occurrences 로 옮긴다
+--     (예외 행은 start_at 을 옮길 수 있어 start_at 을 넣은 unique index 로는 지킬 수 없다)
+
+alter table event_reminders drop constraint if exists event_reminders_event_id_fkey;
+alter table reminder_inbox drop constraint if exists reminder_inbox_event_id_fkey;
+alter table events drop constraint if exists events_series_id_fkey;
+
+alter table events rename to events_legacy;
+alter table events_legacy rename constraint events_pkey to events_legacy_pkey;
+
+create table events (
+  id bigint not null default nextval('events_id_seq'),
+  calendar_id bigint not null references calendars(id) on delete cascade,
+  title varchar(200) not null,
+  start_at timestamptz not null,
+  end_at timestamptz not null,
+  all_day boolean not null default false,
+  note text null,
+  created_by bigint not null references users(id),
+  updated_by bigint not null references users(id),
+  created_at timestamptz not null default now(),
+  updated_at timestamptz not null default now(),
+  deleted_at timestamptz null,
+  rrule varchar(255) null,
+  recur_until timestamptz null,
+  series_id bigint null,
+  original_start_at timestamptz null,
+  -- 구간 조회가 start_at 하한으로 파티션을 거를 수 있도록 길이를 제한한다 (EventRepository.MAX_SPAN 과 같은 값)
+  constraint chk_events_span check (end_at <= start_at + interval '366 days'),
+  primary key (id, start_at)
+) partition by range (start_at);
+
+-- 범위 파티션이 아직 없는 시각(아주 먼 과거/미래)의 행을 받는다. 보통은 비어 있다
+create table events_default partition of events default;
+
+-- 회차 예외 키: createOccurrence / ICS EXDATE 가 여기 먼저 넣고 성공한 경우에만 예외 행을 만든다
+create table event_occurrences (
+  series_id bigint not null,
+  original_start_at timestamptz not null,
+  primary key (series_id, original_start_at)
+);
+
+-- 월 파티션 events_pYYYYMM 을 from_month 부터 now() + months_ahead 개월까지 만든다 (UTC 월 경계).
+-- default 파티션에 이미 들어간 그 달의 행은 새 파티션으로 옮긴 뒤 붙인다. 만든 파티션 수를 돌려준다
+create or replace function ensure_event_partitions(from_month date, months_ahead int) returns int
+language plpgsql as $$
+declare
+  m date := date_trunc('month', from_month)::date;
+  last_month date := date_trunc('month', (now() at time zone 'UTC') + make_interval(months => months_ahead))::date;
+  lo timestamptz;
+  hi timestamptz;
+  part text;
+  created int := 0;
+begin
+  -- 여러 인스턴스가 동시에 돌려도 한 번만 만든다
+  perform pg_advisory_xact_lock(hashtext('ensure_event_partitions'));
+  while m <= last_month loop
+    part := 'events_p' || to_char(m, 'YYYYMM');
+    if to_regclass(part) is null then
+      lo := m::timestamp at time zone 'UTC';
+      hi := (m + interval '1 month')::timestamp at time zone 'UTC';
+      execute format('create table %I (like events including defaults including constraints)', part);
+      execute format('with moved as (delete from events_default where start_at >= %L and start_at < %L returning *) '
+                     || 'insert into %I select * from moved', lo, hi, part);
+      execute format('alter table events attach partition %I for values from (%L) to (%L)', part, lo, hi);
+      created := created + 1;
+    end if;
+    m := (m + interval '1 month')::date;
+  end loop;
+  return created;
+end $$;
+
+-- before 이전에 끝나는 월 파티션 중 빈 것을 지운다 (아카이브 후 정리). 지운 파티션 수를 돌려준다
+create or replace function drop_empty_event_partitions(before timestamptz) returns int
+language plpgsql as $$
+declare
+  part text;
+  is_empty boolean;
+  dropped int := 0;
+begin
+  perform pg_advisory_xact_lock(hashtext('ensure_event_partitions'));
+  for part in
+    select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid
+    where i.inhparent = 'events'::regclass and c.relname ~ '^events_p[0-9]{6}$'
+      and (to_date(substr(c.relname, 9), 'YYYYMM') + interval '1 month')::timestamp at time zone 'UTC' <= before
+    order by c.relname
+  loop
+    -- 비어 있는지 본 뒤 지우기 전까지 다른 트랜잭션이 행을 넣지 못하게 먼저 잠근다
+    execute format('lock table %I in access exclusive mode', part);
+    execute format('select not exists (select 1 from %I)', part) into is_empty;
+    if is_empty then
+      execute format('drop table %I', part);
+      dropped := dropped + 1;
+    end if;
+  end loop;
+  return dropped;
+end $$;
+
+-- 데이터가 있는 달부터 (너무 오래된 행은 default 로) 12개월 뒤까지
+select ensure_event_partitions(
+  greatest(
+    coalesce((select min(start_at) from events_legacy), now()),
+    now() - interval '5 years'
+  )::date,
+  12
+);
+
+-- 366일보다 긴 기존 일정은 끝 시각을 잘라서 옮긴다
+insert into events (id, calendar_id, title, start_at, end_at, all_day, note, created_by, updated_by,
+                    created_at, updated_at, deleted_at, rrule, recur_until, series_id, original_start_at)
+select id, calendar_id, title, start_at, least(end_at, start_at + interval '366 days'), all_day, note, created_by, updated_by,
+       created_at, updated_at, deleted_at, rrule, recur_until, series_id, original_start_at
+from events_legacy;
+
+insert into event_occurrences (series_id, original_start_at)
+select series_id, original_start_at from events_legacy where series_id is not null
+on conflict do nothing;
+
+alter sequence events_id_seq owned by events.id;
+drop table events_legacy;
+
+-- 인덱스는 데이터를 넣은 뒤 만든다 (파티션마다 같은 인덱스가 생긴다)
+create index if not exists idx_events_calendar_time on events(calendar_id, start_at, end_at);
+create index if not exists idx_events_calendar_updated on events(calendar_id, updated_at, id);
+create index if not exists idx_events_series_window on events(calendar_id, start_at)
+  where rrule is not null and deleted_at is null;
+create index if not exists idx_events_series_occurrence on events(series_id, original_start_at)
+  where series_id is not null;
+create index if not exists idx_events_busy on events(calendar_id, start_at, end_at)
+  where deleted_at is null and rrule is null;
+create index if not exists idx_events_calendar_keyset on events(calendar_id, start_at, id)
+  where deleted_at is null and rrule is null;
+-- 아카이브 대상(오래 전에 지워진 행) 찾기
+create index if not exists idx_events_deleted on events(deleted_at) where deleted_at is not null;
+
+-- events 로의 FK 가 없으므로 캘린더를 지울 때 알림/회차 키는 여기서 지운다 (inbox 는 calendar_id FK 로 지워짐)
+create or replace function delete_calendar_event_refs() returns trigger
+language plpgsql as $$
+begin
+  delete from event_reminders r using events e where e.id = r.event_id and e.calendar_id = old.id;
+  delete from event_occurrences k using events e where e.id = k.series_id and e.calendar_id = old.id;
+  return old;
+end $$;
+
+create trigger trg_calendars_delete_event_refs before delete on calendars
+  for each row execute function delete_calendar_event_refs();
+
+-- 아카이브된 이벤트. 파티션 없이 한 테이블에 쌓고 조회 경로에서는 읽지 않는다
+create table if not exists events_archive (
+  id bigint not null,
+  calendar_id bigint not null,
+  title varchar(200) not null,
+  start_at timestamptz not null,
+  end_at timestamptz not null,
+  all_day boolean not null,
+  note text null,
+  created_by bigint not null,
+  updated_by bigint not null,
+  created_at timestamptz not null,
+  updated_at timestamptz not null,
+  deleted_at timestamptz null,
+  rrule varchar(255) null,
+  recur_until timestamptz null,
+  series_id bigint null,
+  original_start_at timestamptz null,
+  archived_at timestamptz not null default now(),
+  primary key (id)
+);
+
+create index if not exists idx_events_archive_calendar on events_archive(calendar_id, start_at);
@@ -0,0 +1,47 @@
+-- 구간 조회 (start_at < to and end_at > from) 를 B-tree (calendar_id, start_at, end_at) 로 풀면
+-- start_at 쪽만 범위가 걸려서 오래된 캘린더는 구간 앞의 일정을 전부 훑는다.
+-- [start_at, end_at) 를 generated tstzrange 로 두고 GiST (calendar_id, span) 에서 && 로 양쪽을 한 번에 거른다.
+-- calendar_id (bigint) 를 GiST 에 같이 넣으려면 btree_gist 가 필요하다
+create extension if not exists btree_gist;
+
+alter table events
+  add column if not exists span tstzrange generated always as (tstzrange(start_at, end_at, '[)')) stored;
+
+-- 구간 조회는 살아 있는 단일 일정/예외 행만 읽으므로 그 행만 색인한다 (시리즈 행은 idx_events_series_window)
+create index if not exists idx_events_live_span on events using gist (calendar_id, span)
+  where deleted_at is null and rrule is null;
+
+-- 구간 조회는 위 인덱스, 캘린더 단위 스캔은 idx_events_calendar_updated 가 맡으므로 쓰기 비용만 남는다
+drop index if exists idx_events_calendar_time;
+
+-- 파티션 테이블에 generated 컬럼이 생겼으니 새 파티션도 generated 로 만들고,
+-- default 에서 옮기는 insert 는 span 을 빼고 컬럼을 적는다
+create or replace function ensure_event_partitions(from_month date, months_ahead int) returns int
+language plpgsql as $$
+declare
+  m date := date_trunc('month', from_month)::date;
+  last_month date := date_trunc('month', (now() at time zone 'UTC') + make_interval(months => months_ahead))::date;
+  lo timestamptz;
+  hi timestamptz;
+  part text;
+  cols text := 'id, calendar_id, title, start_at, end_at, all_day, note, created_by, updated_by, '
+               || 'created_at, updated_at, deleted_at, rrule, recur_until, series_id, original_start_at';
+  created int := 0;
+begin
+  -- 여러 인스턴스가 동시에 돌려도 한 번만 만든다
+  perform pg_advisory_xact_lock(hashtext('ensure_event_partitions'));
+  while m <= last_month loop
+    part := 'events_p' || to_char(m, 'YYYYMM');
+    if to_regclass(part) is null then
+      lo := m::timestamp at time zone 'UTC';
+      hi := (m + interval '1 month')::timestamp at time zone 'UTC';
+      execute format('create table %I (like events including defaults including constraints including generated)', part);
+      execute format('with moved as (delete from events_default where start_at >= %L and start_at < %L returning *) '
+                     || 'insert into %I (%s) select %s from moved', lo, hi, part, cols, cols);
+      execute format('alter table events attach partition %I for values from (%L) to (%L)', part, lo, hi);
+      created := created + 1;
+    end if;
+    m := (m + interval '1 month')::date;
+  end loop;
+  return created;
+end $$;
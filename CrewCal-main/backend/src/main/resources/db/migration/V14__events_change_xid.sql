@@ -0,0 +1,53 @@
+-- /events/changes 를 updated_at(트랜잭션 시작 시각) 대신 행을 쓴 트랜잭션 id 로 정렬한다.
+-- updated_at 은 커밋 시각이 아니라서, 오래 걸린 트랜잭션의 행이 이미 지나간 커서 뒤에 늦게 나타날 수 있었다.
+-- change_xid < pg_snapshot_xmin(pg_current_snapshot()) 인 행은 쓴 트랜잭션이 이미 끝났으므로,
+-- 그 아래로는 앞으로 새 행이 생기지 않는다 (진행 중인 트랜잭션이 있으면 그만큼 피드가 기다린다).
+-- 기존 행은 null 로 두고 피드에서 빠진다: 이전 커서는 어차피 다시 받아야 하고, 다음 변경 때 채워진다
+alter table events add column if not exists change_xid xid8;
+
+create or replace function set_event_change_xid() returns trigger
+language plpgsql as $$
+begin
+  new.change_xid := pg_current_xact_id();
+  return new;
+end $$;
+
+-- 파티션 테이블에 걸면 기존/새로 붙는 파티션 모두에 복제된다. 일괄 쓰기/가져오기 경로까지 빠짐없이 채우려고 트리거로 둔다
+create trigger trg_events_change_xid before insert or update on events
+  for each row execute function set_event_change_xid();
+
+-- 변경 피드의 키셋 (calendar_id, change_xid, id). 캘린더 단위 스캔도 이 인덱스가 맡는다
+create index if not exists idx_events_calendar_change on events(calendar_id, change_xid, id);
+drop index if exists idx_events_calendar_updated;
+
+-- default 에서 새 파티션으로 옮기는 insert 에 change_xid 도 넣는다.
+-- 붙이기 전의 테이블에는 트리거가 없어서 원래 값이 유지된다 (옮긴 행이 피드에 다시 나오지 않는다)
+create or replace function ensure_event_partitions(from_month date, months_ahead int) returns int
+language plpgsql as $$
+declare
+  m date := date_trunc('month', from_month)::date;
+  last_month date := date_trunc('month', (now() at time zone 'UTC') + make_interval(months => months_ahead))::date;
+  lo timestamptz;
+  hi timestamptz;
+  part text;
+  cols text := 'id, calendar_id, title, start_at, end_at, all_day, note, created_by, updated_by, '
+               || 'created_at, updated_at, deleted_at, rrule, recur_until, series_id, original_start_at, change_xid';
+  created int := 0;
+begin
+  -- 여러 인스턴스가 동시에 돌려도 한 번만 만든다
+  perform pg_advisory_xact_lock(hashtext('ensure_event_partitions'));
+  while m <= last_month loop
+    part := 'events_p' || to_char(m, 'YYYYMM');
+    if to_regclass(part) is null then
+      lo := m::timestamp at time zone 'UTC';
+      hi := (m + interval '1 month')::timestamp at time zone 'UTC';
+      execute format('create table %I (like events including defaults including constraints including generated)', part);
+      execute format('with moved as (delete from events_default where start_at >= %L and start_at < %L returning *) '
+                     || 'insert into %I (%s) select %s from moved', lo, hi, part, cols, cols);
+      execute format('alter table events attach partition %I for values from (%L) to (%L)', part, lo, hi);
+      created := created + 1;
+    end if;
+    m := (m + interval '1 month')::date;
+  end loop;
+  return created;
+end $$;
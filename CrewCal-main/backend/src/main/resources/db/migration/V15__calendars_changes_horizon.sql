@@ -0,0 +1,4 @@
+-- 아카이브가 tombstone(지운 행)을 events 에서 빼면 그 삭제는 /events/changes 로 더 이상 전달되지 않는다.
+-- 캘린더마다 아카이브한 tombstone 의 가장 큰 change_xid 를 남겨 두고, 그 이하의 커서는 410 으로 다시 받게 한다.
+-- null 이면 아직 아카이브한 tombstone 이 없다
+alter table calendars add column if not exists changes_horizon xid8;
@@ -0,0 +1,15 @@
+-- 반복 시리즈 알림이 가리키는 회차 (원래 시작 시각, 예외 행의 original_start_at 과 같은 값).
+-- 회차만 옮긴 경우 fire_at 은 옮겨진 시작 기준이 되므로 fire_at + minutes_before 로는 회차를 알 수 없다
+alter table event_reminders add column if not exists occurrence_at timestamptz null;
+
+update event_reminders r
+set occurrence_at = r.fire_at + make_interval(mins => r.minutes_before)
+from events e
+where e.id = r.event_id and e.rrule is not null;
+
+-- 이미 옮겨 둔 회차를 가리키는 알림은 옮겨진 시작 기준으로 다시 맞춘다
+update event_reminders r
+set fire_at = x.start_at - make_interval(mins => r.minutes_before), claimed_by = null, claimed_until = null
+from events x
+where x.series_id = r.event_id and x.original_start_at = r.occurrence_at and x.deleted_at is null
+  and r.fired_at is null and x.start_at <> r.occurrence_at;
@@ -0,0 +1,2 @@
+-- /events/changes 증분 동기화용: 캘린더별 (updated_at, id) 순서로 범위 스캔
+create index if not exists idx_events_calendar_updated on events(calendar_id, updated_at, id);
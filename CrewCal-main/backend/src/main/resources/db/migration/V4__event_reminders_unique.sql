@@ -0,0 +1,6 @@
+-- 이벤트당 알림은 하나: 중복은 가장 최근(id가 큰) 행만 남기고 정리
+delete from event_reminders r
+using event_reminders d
+where r.event_id = d.event_id and r.id < d.id;
+
+alter table event_reminders add constraint uq_event_reminders_event unique (event_id);
@@ -0,0 +1,31 @@
+-- 알림 발송: fire_at(= 시작 시각 - minutes_before) 기준으로 인스턴스들이 나눠서 claim 한다
+alter table event_reminders
+  add column if not exists fire_at timestamptz null,
+  add column if not exists claimed_by varchar(64) null,
+  add column if not exists claimed_until timestamptz null,
+  add column if not exists fired_at timestamptz null;
+
+update event_reminders r
+set fire_at = e.start_at - make_interval(mins => r.minutes_before)
+from events e
+where e.id = r.event_id;
+
+-- 이미 지난 알림은 발송하지 않는다
+update event_reminders set fired_at = now() where fire_at is null or fire_at < now();
+
+create index if not exists idx_event_reminders_due on event_reminders(fire_at) where fired_at is null;
+
+create table if not exists reminder_inbox (
+  id bigserial primary key,
+  user_id bigint not null references users(id) on delete cascade,
+  event_id bigint not null references events(id) on delete cascade,
+  calendar_id bigint not null references calendars(id) on delete cascade,
+  title varchar(200) not null,
+  start_at timestamptz not null,
+  fire_at timestamptz not null,
+  created_at timestamptz not null default now(),
+  read_at timestamptz null,
+  unique (user_id, event_id, fire_at)
+);
+
+create index if not exists idx_reminder_inbox_user on reminder_inbox(user_id, created_at desc);
@@ -0,0 +1,15 @@
+-- 메일은 요청 트랜잭션에서 outbox 에 쌓고, 백그라운드 dispatcher 가 배치로 보낸다
+create table if not exists email_outbox (
+  id bigserial primary key,
+  to_email varchar(255) not null,
+  subject varchar(255) not null,
+  body text not null,
+  status varchar(20) not null default 'PENDING', -- PENDING/SENT/FAILED
+  attempts int not null default 0,
+  next_attempt_at timestamptz not null default now(),
+  last_error text null,
+  created_at timestamptz not null default now(),
+  sent_at timestamptz null
+);
+
+create index if not exists idx_email_outbox_due on email_outbox(next_attempt_at) where status = 'PENDING';
@@ -0,0 +1,14 @@
+-- 반복 일정: 시리즈 한 행(rrule) + 예외 행(series_id, original_start_at)
+-- recur_until 은 마지막 occurrence 의 시작 시각 상한 (COUNT 규칙은 저장할 때 계산, 무한 반복이면 null)
+-- 예외 행이 삭제(deleted_at) 상태면 그 회차는 취소된 것
+alter table events
+  add column if not exists rrule varchar(255) null,
+  add column if not exists recur_until timestamptz null,
+  add column if not exists series_id bigint null references events(id) on delete cascade,
+  add column if not exists original_start_at timestamptz null;
+
+create index if not exists idx_events_series_window on events(calendar_id, start_at)
+  where rrule is not null and deleted_at is null;
+
+create unique index if not exists uq_events_series_occurrence on events(series_id, original_start_at)
+  where series_id is not null;
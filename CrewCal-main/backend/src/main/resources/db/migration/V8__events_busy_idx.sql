@@ -0,0 +1,3 @@
+-- free/busy 조회는 시간 컬럼만 읽으므로 index-only scan 이 되도록 (반복 시리즈 행은 따로 펼침)
+create index if not exists idx_events_busy on events(calendar_id, start_at, end_at)
+  where deleted_at is null and rrule is null;
@@ -0,0 +1,3 @@
+-- agenda 페이지: 캘린더별 (start_at, id) 키셋 범위 스캔
+create index if not exists idx_events_calendar_keyset on events(calendar_id, start_at, id)
+  where deleted_at is null and rrule is null;
@@ -0,0 +1,79 @@
+package com.example.calendar.calendar;
+
+import com.example.calendar.support.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 멤버를 바꾸는 트랜잭션이 커밋되기 전에 다른 요청이 권한을 읽어 캐시해도, 커밋 뒤에는 새 권한이 보여야 한다
+class CalendarPermissionCacheTest extends IntegrationTest {
+
+    @Autowired private CalendarRepository calendarRepository;
+    @Autowired private SharingRepository sharingRepository;
+    @Autowired private TransactionTemplate tx;
+
+    private TestUser editor;
+    private long calendarId;
+
+    @BeforeEach
+    void setUp() {
+        TestUser owner = user("owner");
+        editor = user("editor");
+        calendarId = calendar(owner, "team");
+        member(calendarId, editor, "EDITOR");
+    }
+
+    // 다른 스레드 = 다른 커넥션. 아직 커밋되지 않은 변경은 보지 못한다
+    private CalendarRole concurrentRead() throws Exception {
+        return CompletableFuture.supplyAsync(() -> calendarRepository.roleOf(calendarId, editor.id())).get();
+    }
+
+    @Test
+    void removedMemberLosesAccessAsSoonAsTheRemovalCommits() {
+        assertThat(calendarRepository.roleOf(calendarId, editor.id())).isEqualTo(CalendarRole.EDITOR);
+
+        tx.executeWithoutResult(status -> {
+            sharingRepository.removeMember(calendarId, editor.id());
+            try {
+                assertThat(concurrentRead()).isEqualTo(CalendarRole.EDITOR);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(calendarRepository.roleOf(calendarId, editor.id())).isNull();
+    }
+
+    @Test
+    void demotedMemberSeesTheNewRoleAfterCommit() {
+        assertThat(calendarRepository.roleOf(calendarId, editor.id())).isEqualTo(CalendarRole.EDITOR);
+
+        tx.executeWithoutResult(status -> {
+            sharingRepository.setMemberRole(calendarId, editor.id(), "VIEWER");
+            try {
+                concurrentRead();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(calendarRepository.roleOf(calendarId, editor.id())).isEqualTo(CalendarRole.VIEWER);
+    }
+
+    @Test
+    void rolledBackRemovalKeepsTheCommittedRole() {
+        tx.executeWithoutResult(status -> {
+            sharingRepository.removeMember(calendarId, editor.id());
+            // 같은 트랜잭션 안에서 읽은 (커밋되지 않은) 값이 캐시에 남으면 안 된다
+            assertThat(calendarRepository.roleOf(calendarId, editor.id())).isNull();
+            status.setRollbackOnly();
+        });
+
+        assertThat(calendarRepository.roleOf(calendarId, editor.id())).isEqualTo(CalendarRole.EDITOR);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.calendar.common.mail;
+
+import com.example.calendar.support.IntegrationTest;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 로컬 SMTP(GreenMail)로 실제로 보낸다. 테스트 프로필은 app.mail.outbox.enabled=false 라 dispatcher 를 직접 만든다
+class EmailOutboxDispatcherTest extends IntegrationTest {
+
+    @RegisterExtension
+    static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    @Autowired private EmailOutboxRepository repository;
+    @Autowired private TransactionTemplate tx;
+
+    private final RejectingMailSender sender = new RejectingMailSender();
+    private EmailOutboxDispatcher dispatcher;
+
+    // GreenMail 은 모든 수신자를 받아 주므로, 서버가 RCPT 를 거절한 경우를 JavaMailSenderImpl 과 같은 모양으로 흉내 낸다:
+    // 나머지는 그대로 보내고, 거절된 메시지만 원래 메시지를 키로 MailSendException.failedMessages 에 담는다
+    static final class RejectingMailSender extends JavaMailSenderImpl {
+        final Set<String> rejected = new HashSet<>();
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+            List<MimeMessage> accepted = new ArrayList<>();
+            List<Object> acceptedOriginals = new ArrayList<>();
+            Map<Object, Exception> failures = new LinkedHashMap<>();
+            for (int i = 0; i < mimeMessages.length; i++) {
+                if (isRejected(mimeMessages[i])) {
+                    failures.put(originalMessages[i], new SendFailedException("550 5.1.1 Mailbox unavailable"));
+                } else {
+                    accepted.add(mimeMessages[i]);
+                    acceptedOriginals.add(originalMessages[i]);
+                }
+            }
+            try {
+                if (!accepted.isEmpty()) super.doSend(accepted.toArray(new MimeMessage[0]), acceptedOriginals.toArray());
+            } catch (MailSendException e) {
+                failures.putAll(e.getFailedMessages());
+            }
+            if (!failures.isEmpty()) throw new MailSendException(failures);
+        }
+
+        private boolean isRejected(MimeMessage message) {
+            try {
+                return Arrays.stream(message.getAllRecipients()).map(Address::toString).anyMatch(rejected::contains);
+            } catch (MessagingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // 다른 테스트가 쌓아 둔 메일(초대 등)이 이 테스트의 배치에 섞이지 않게 치운다
+        jdbc.update("update email_outbox set status = 'SENT', sent_at = now() where status = 'PENDING'");
+        sender.setHost("localhost");
+        sender.setPort(smtp.getSmtp().getPort());
+        dispatcher = new EmailOutboxDispatcher(repository, sender, tx, 50, MAX_ATTEMPTS);
+    }
+
+    private Map<String, Object> row(long id) {
+        return jdbc.queryForMap(
+                "select status, attempts, last_error, extract(epoch from next_attempt_at - now()) as delay " +
+                "from email_outbox where id = ?", id);
+    }
+
+    @Test
+    void batchIsSentOverOneDrain() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) ids.add(repository.enqueue("user" + i + "@example.com", "subject " + i, "body " + i));
+
+        dispatcher.drain();
+
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertThat(received).hasSize(3);
+        assertThat(Arrays.stream(received).map(m -> {
+            try {
+                return m.getSubject();
+            } catch (MessagingException e) {
+                throw new IllegalStateException(e);
+            }
+        })).containsExactlyInAnyOrder("subject 0", "subject 1", "subject 2");
+        ids.forEach(id -> assertThat(row(id)).containsEntry("status", "SENT").containsEntry("attempts", 1));
+        assertThat(dispatcher.sentCount()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectedRecipientIsRetriedWithBackoffWhileTheRestIsSent() {
+        long good = repository.enqueue("good@example.com", "hello", "body");
+        long bad = repository.enqueue("bad@example.com", "hello", "body");
+        sender.rejected.add("bad@example.com");
+
+        dispatcher.drain();
+
+        assertThat(smtp.getReceivedMessages()).hasSize(1);
+        assertThat(row(good)).containsEntry("status", "SENT");
+        Map<String, Object> retry = row(bad);
+        assertThat(retry).containsEntry("status", "PENDING").containsEntry("attempts", 1);
+        assertThat((String) retry.get("last_error")).contains("Mailbox unavailable");
+        // 첫 재시도는 30초 뒤
+        assertThat(((Number) retry.get("delay")).doubleValue()).isBetween(25.0, 31.0);
+        assertThat(dispatcher.retriedCount()).isEqualTo(1);
+
+        // backoff 가 지나기 전에는 다시 잡히지 않는다
+        dispatcher.drain();
+        assertThat(row(bad)).containsEntry("attempts", 1);
+    }
+
+    @Test
+    void mailIsMarkedFailedAfterMaxAttempts() {
+        long bad = repository.enqueue("bounce@example.com", "hello", "body");
+        sender.rejected.add("bounce@example.com");
+
+        dispatcher.drain();
+        assertThat(row(bad)).containsEntry("status", "PENDING").containsEntry("attempts", 1);
+
+        jdbc.update("update email_outbox set next_attempt_at = now() where id = ?", bad);
+        dispatcher.drain();
+
+        assertThat(row(bad)).containsEntry("status", "FAILED").containsEntry("attempts", MAX_ATTEMPTS);
+        assertThat(dispatcher.failedCount()).isEqualTo(1);
+
+        // 실패로 닫힌 메일은 더 보내지 않는다
+        jdbc.update("update email_outbox set next_attempt_at = now() where id = ?", bad);
+        dispatcher.drain();
+        assertThat(row(bad)).containsEntry("attempts", MAX_ATTEMPTS);
+        assertThat(smtp.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void unreachableServerRetriesTheWholeBatch() throws Exception {
+        long a = repository.enqueue("a@example.com", "hello", "body");
+        long b = repository.enqueue("b@example.com", "hello", "body");
+        // 아무도 듣지 않는 포트
+        try (ServerSocket socket = new ServerSocket(0)) {
+            sender.setPort(socket.getLocalPort());
+        }
+
+        dispatcher.drain();
+
+        assertThat(row(a)).containsEntry("status", "PENDING").containsEntry("attempts", 1);
+        assertThat(row(b)).containsEntry("status", "PENDING").containsEntry("attempts", 1);
+    }
+}
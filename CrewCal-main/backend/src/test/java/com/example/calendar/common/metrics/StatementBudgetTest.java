@@ -0,0 +1,230 @@
+package com.example.calendar.common.metrics;
+
+import com.example.calendar.auth.UserProfileCache;
+import com.example.calendar.calendar.CalendarPermissionCache;
+import com.example.calendar.support.IntegrationTest;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// app.query-budget.mode=fail (application-test.properties) 로 @StatementBudget 이 붙은 엔드포인트를 모두 호출한다.
+// 예산을 넘으면 넘는 문장에서 StatementBudgetExceededException 이 나서 500 이 되므로 2xx 만 확인하면 된다.
+// 권한/프로필 캐시는 요청마다 비워서 캐시가 식은 상태(가장 많은 문장)에서 잰다
+class StatementBudgetTest extends IntegrationTest {
+
+    // 이 클래스가 호출하는 (method, route). 새 엔드포인트에 예산을 붙이면 여기와 테스트를 같이 늘린다
+    private static final Set<String> COVERED = Set.of(
+            "GET /events",
+            "GET /events/changes",
+            "POST /events",
+            "POST /events:batch",
+            "PATCH /events/{eventId}",
+            "DELETE /events/{eventId}",
+            "PATCH /events/{eventId}/occurrences",
+            "DELETE /events/{eventId}/occurrences",
+            "GET /calendars",
+            "POST /calendars",
+            "PATCH /calendars/{calendarId}",
+            "DELETE /calendars/{calendarId}",
+            "GET /calendars/{calendarId}/members",
+            "PATCH /calendars/{calendarId}/members/{userId}",
+            "DELETE /calendars/{calendarId}/members/{userId}",
+            "GET /calendars/{calendarId}/invites",
+            "POST /calendars/{calendarId}/invites",
+            "DELETE /calendars/{calendarId}/invites/{inviteId}",
+            "GET /calendars/{calendarId}/feed.ics",
+            "GET /freebusy",
+            "POST /scheduling/find-slots"
+    );
+
+    @Autowired private CalendarPermissionCache permissionCache;
+    @Autowired private UserProfileCache userProfileCache;
+    @Autowired @Qualifier("requestMappingHandlerMapping") private RequestMappingHandlerMapping handlerMapping;
+
+    private final OffsetDateTime from = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS);
+    private final OffsetDateTime to = from.plusDays(14);
+    private final OffsetDateTime seriesStart = from.minusWeeks(1).plusHours(20);
+
+    private TestUser owner;
+    private TestUser editor;
+    private long calendarId;
+    private long eventId;
+    private long seriesId;
+
+    @BeforeEach
+    void setUp() {
+        owner = user("owner");
+        editor = user("editor");
+        calendarId = calendar(owner, "team");
+        member(calendarId, editor, "EDITOR");
+        eventId = event(calendarId, owner, from.plusHours(9), from.plusHours(10));
+        seriesId = weeklySeries(calendarId, owner, seriesStart, seriesStart.plusMinutes(30), 6);
+        event(calendarId, editor, from.plusDays(1).plusHours(13), from.plusDays(1).plusHours(14));
+    }
+
+    private ResultActions call(MockHttpServletRequestBuilder request) throws Exception {
+        permissionCache.invalidateAll();
+        userProfileCache.invalidateAll();
+        return mvc.perform(request.header(HttpHeaders.AUTHORIZATION, owner.bearer()));
+    }
+
+    private ResultActions callJson(MockHttpServletRequestBuilder request, String json) throws Exception {
+        return call(request.contentType(MediaType.APPLICATION_JSON).content(json));
+    }
+
+    @Test
+    void everyBudgetedEndpointIsCovered() {
+        Set<String> budgeted = new TreeSet<>();
+        handlerMapping.getHandlerMethods().forEach((info, handler) -> {
+            if (!handler.hasMethodAnnotation(StatementBudget.class)) return;
+            for (var method : info.getMethodsCondition().getMethods()) {
+                for (String pattern : info.getPatternValues()) budgeted.add(method.name() + " " + pattern);
+            }
+        });
+        assertThat(budgeted).containsExactlyInAnyOrderElementsOf(COVERED);
+    }
+
+    @Test
+    void eventReads() throws Exception {
+        String ids = Long.toString(calendarId);
+        call(get("/events").param("calendarIds", ids).param("from", from.toString()).param("to", to.toString()))
+                .andExpect(status().isOk());
+        call(get("/events").param("calendarIds", ids).param("from", from.toString()).param("limit", "10"))
+                .andExpect(status().isOk());
+        call(get("/events").accept("application/x-ndjson")
+                .param("calendarIds", ids).param("from", from.toString()).param("to", to.toString()))
+                .andExpect(status().isOk());
+
+        String cursor = JsonPath.read(call(get("/events/changes").param("calendarIds", ids))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), "$.cursor");
+        call(get("/events/changes").param("calendarIds", ids).param("since", cursor))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void eventWrites() throws Exception {
+        callJson(post("/events"), """
+                {"calendarId": %d, "title": "new", "startAt": "%s", "endAt": "%s", "reminderMinutesBefore": 10}
+                """.formatted(calendarId, from.plusHours(15), from.plusHours(16)))
+                .andExpect(status().isOk());
+        callJson(patch("/events/" + eventId), """
+                {"title": "moved", "startAt": "%s", "endAt": "%s", "reminderMinutesBefore": 5}
+                """.formatted(from.plusHours(11), from.plusHours(12)))
+                .andExpect(status().is2xxSuccessful());
+        call(delete("/events/" + eventId))
+                .andExpect(status().is2xxSuccessful());
+
+        callJson(patch("/events/" + seriesId + "/occurrences").param("at", seriesStart.plusWeeks(1).toString()),
+                """
+                {"title": "one-off"}
+                """)
+                .andExpect(status().isOk());
+        call(delete("/events/" + seriesId + "/occurrences").param("at", seriesStart.plusWeeks(2).toString()))
+                .andExpect(status().is2xxSuccessful());
+    }
+
+    @Test
+    void batchWithEveryOpKind() throws Exception {
+        long other = calendar(owner, "other");
+        member(other, editor, "EDITOR");
+        long toUpdate = event(other, owner, from.plusHours(8), from.plusHours(9));
+        long toDelete = event(calendarId, owner, from.plusHours(18), from.plusHours(19));
+
+        // 캘린더 두 개, 생성/수정/삭제 모두: 문장 수는 항목/캘린더 수와 무관해야 한다
+        callJson(post("/events:batch"), """
+                {"ops": [
+                  {"op": "CREATE", "calendarId": %d, "title": "a", "startAt": "%s", "endAt": "%s", "reminderMinutesBefore": 10},
+                  {"op": "CREATE", "calendarId": %d, "title": "b", "startAt": "%s", "endAt": "%s"},
+                  {"op": "UPDATE", "eventId": %d, "title": "c", "reminderMinutesBefore": 15},
+                  {"op": "UPDATE", "eventId": %d, "endAt": "%s"},
+                  {"op": "DELETE", "eventId": %d}
+                ]}
+                """.formatted(
+                        calendarId, from.plusHours(1), from.plusHours(2),
+                        other, from.plusHours(3), from.plusHours(4),
+                        toUpdate,
+                        eventId, from.plusHours(11),
+                        toDelete))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[*].status").value(everyItem(is("OK"))));
+    }
+
+    @Test
+    void calendarEndpoints() throws Exception {
+        call(get("/calendars")).andExpect(status().isOk());
+        callJson(post("/calendars"), """
+                {"name": "created", "color": "#123456"}
+                """).andExpect(status().isOk());
+        callJson(patch("/calendars/" + calendarId), """
+                {"name": "renamed"}
+                """).andExpect(status().is2xxSuccessful());
+
+        call(get("/calendars/" + calendarId + "/members")).andExpect(status().isOk());
+        callJson(patch("/calendars/" + calendarId + "/members/" + editor.id()), """
+                {"role": "VIEWER"}
+                """).andExpect(status().is2xxSuccessful());
+        call(delete("/calendars/" + calendarId + "/members/" + editor.id())).andExpect(status().is2xxSuccessful());
+
+        call(get("/calendars/" + calendarId + "/invites")).andExpect(status().isOk());
+        callJson(post("/calendars/" + calendarId + "/invites"), """
+                {"email": "invitee-%s@example.com", "role": "EDITOR"}
+                """.formatted(UUID.randomUUID())).andExpect(status().isOk());
+        Long inviteId = jdbc.queryForObject(
+                "select id from calendar_invites where calendar_id = ? order by id desc limit 1", Long.class, calendarId);
+        call(delete("/calendars/" + calendarId + "/invites/" + inviteId)).andExpect(status().is2xxSuccessful());
+
+        long doomed = calendar(owner, "doomed");
+        event(doomed, owner, from.plusHours(1), from.plusHours(2));
+        call(delete("/calendars/" + doomed)).andExpect(status().is2xxSuccessful());
+    }
+
+    @Test
+    void feedWithoutJwt() throws Exception {
+        String token = UUID.randomUUID().toString().replace("-", "");
+        jdbc.update("insert into calendar_feed_tokens (calendar_id, user_id, token) values (?, ?, ?)",
+                calendarId, owner.id(), token);
+
+        permissionCache.invalidateAll();
+        mvc.perform(get("/calendars/" + calendarId + "/feed.ics").param("token", token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void scheduling() throws Exception {
+        call(get("/freebusy").param("userIds", owner.id() + "," + editor.id())
+                .param("from", from.toString()).param("to", to.toString()))
+                .andExpect(status().isOk());
+
+        // 공유 캘린더가 적으면 요청 스레드에서 읽는다: 공유 캘린더 + 단일 일정 + 반복 시리즈
+        long findSlots = statements("POST", "/scheduling/find-slots", () -> callJson(post("/scheduling/find-slots"), """
+                {"participantIds": [%d, %d], "durationMinutes": 30, "from": "%s", "to": "%s"}
+                """.formatted(owner.id(), editor.id(), from, from.plusDays(3)))
+                .andExpect(status().isOk()));
+        assertThat(findSlots).isEqualTo(3);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.calendar.common.ratelimit;
+
+import com.example.calendar.common.security.UserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// DB 없이 필터만 세운다. 테스트 프로필은 app.rate-limit.enabled=false 라 IntegrationTest 로는 막히는 걸 볼 수 없다
+class RateLimitFilterTest {
+
+    @RestController
+    static class Endpoints {
+        @PostMapping("/auth/signup") void signup() {}
+        @PostMapping("/events") void createEvent() {}
+        @GetMapping("/events") List<String> listEvents() { return List.of(); }
+    }
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        // signup: 2개 몰아 쓰고 분당 1개 (Retry-After 60초), event-write: 사용자당 2개
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("app.rate-limit.signup.capacity", "2")
+                .withProperty("app.rate-limit.signup.per-minute", "1")
+                .withProperty("app.rate-limit.event-write.capacity", "2");
+        RateLimiter limiter = new RateLimiter(env, new SimpleMeterRegistry(), true, 1000);
+        mvc = MockMvcBuilders.standaloneSetup(new Endpoints())
+                .addFilters(new RateLimitFilter(limiter, new ObjectMapper().findAndRegisterModules()))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static MockHttpServletRequestBuilder from(MockHttpServletRequestBuilder request, String ip) {
+        return request.with(r -> {
+            r.setRemoteAddr(ip);
+            return r;
+        });
+    }
+
+    private static void signIn(long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "user" + userId + "@example.com");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private ResultActions signup(String ip) throws Exception {
+        return mvc.perform(from(post("/auth/signup"), ip));
+    }
+
+    @Test
+    void exhaustedBucketAnswers429WithRetryAfter() throws Exception {
+        signup("10.0.0.1").andExpect(status().isOk()).andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+        signup("10.0.0.1").andExpect(status().isOk());
+
+        signup("10.0.0.1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.path").value("/auth/signup"));
+    }
+
+    @Test
+    void ipPolicyKeepsOneBucketPerClientAddress() throws Exception {
+        signup("10.0.0.1").andExpect(status().isOk());
+        signup("10.0.0.1").andExpect(status().isOk());
+        signup("10.0.0.1").andExpect(status().isTooManyRequests());
+
+        signup("10.0.0.2").andExpect(status().isOk());
+    }
+
+    @Test
+    void ipPolicyIgnoresTheSignedInUser() throws Exception {
+        signIn(1);
+        signup("10.0.0.1").andExpect(status().isOk());
+        signIn(2);
+        signup("10.0.0.1").andExpect(status().isOk());
+
+        signIn(3);
+        signup("10.0.0.1").andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void userPolicyKeepsOneBucketPerUserAcrossAddresses() throws Exception {
+        signIn(1);
+        mvc.perform(from(post("/events"), "10.0.0.1")).andExpect(status().isOk());
+        mvc.perform(from(post("/events"), "10.0.0.2")).andExpect(status().isOk());
+        mvc.perform(from(post("/events"), "10.0.0.3"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        signIn(2);
+        mvc.perform(from(post("/events"), "10.0.0.1")).andExpect(status().isOk());
+    }
+
+    @Test
+    void anonymousCallerOnUserPolicyFallsBackToIp() throws Exception {
+        mvc.perform(from(post("/events"), "10.0.0.1")).andExpect(status().isOk());
+        mvc.perform(from(post("/events"), "10.0.0.1")).andExpect(status().isOk());
+        mvc.perform(from(post("/events"), "10.0.0.1")).andExpect(status().isTooManyRequests());
+
+        mvc.perform(from(post("/events"), "10.0.0.2")).andExpect(status().isOk());
+        // 같은 IP 라도 로그인한 사용자는 자기 버킷을 쓴다
+        signIn(1);
+        mvc.perform(from(post("/events"), "10.0.0.1")).andExpect(status().isOk());
+    }
+
+    @Test
+    void unmatchedRequestsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mvc.perform(from(get("/events"), "10.0.0.1")).andExpect(status().isOk());
+        }
+    }
+}
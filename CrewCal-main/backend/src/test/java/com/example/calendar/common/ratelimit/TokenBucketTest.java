@@ -0,0 +1,104 @@
+package com.example.calendar.common.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    // 분당 60 = 1초에 토큰 하나
+    private static final double ONE_PER_SECOND = 60 / 60_000d;
+
+    @Test
+    void burstUpToCapacityThenWaitForTheNextToken() {
+        TokenBucket bucket = new TokenBucket(2, 0);
+
+        assertThat(bucket.tryAcquire(0, 2, ONE_PER_SECOND)).isZero();
+        assertThat(bucket.tryAcquire(0, 2, ONE_PER_SECOND)).isZero();
+        assertThat(bucket.tryAcquire(0, 2, ONE_PER_SECOND)).isEqualTo(1000);
+        // 거절은 상태를 바꾸지 않으므로 기다린 만큼 줄어든다
+        assertThat(bucket.tryAcquire(400, 2, ONE_PER_SECOND)).isEqualTo(600);
+        assertThat(bucket.tryAcquire(1000, 2, ONE_PER_SECOND)).isZero();
+        assertThat(bucket.tryAcquire(1000, 2, ONE_PER_SECOND)).isEqualTo(1000);
+    }
+
+    @Test
+    void waitIsAtLeastOneMillisecond() {
+        double perMs = 90 / 60_000d;
+        TokenBucket bucket = new TokenBucket(1, 0);
+        bucket.tryAcquire(0, 1, perMs);
+
+        // 666ms 에 999.0 milli-token: 아직 모자라지만 올림하면 1ms
+        assertThat(bucket.tryAcquire(666, 1, perMs)).isEqualTo(1);
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 0);
+        bucket.tryAcquire(0, 3, ONE_PER_SECOND);
+
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (bucket.tryAcquire(10_000_000, 3, ONE_PER_SECOND) == 0) allowed++;
+        }
+        assertThat(allowed).isEqualTo(3);
+    }
+
+    @Test
+    void frequentCallsDoNotLoseFractionalRefill() {
+        // 분당 90 = 1ms 에 1.5 milli-token. 매 ms 호출해도 소수점 아래 충전분이 쌓여 정확히 90개가 나와야 한다
+        double perMs = 90 / 60_000d;
+        TokenBucket bucket = new TokenBucket(10, 0);
+        for (int i = 0; i < 10; i++) bucket.tryAcquire(0, 10, perMs);
+
+        int allowed = 0;
+        for (long t = 1; t <= 60_000; t++) {
+            if (bucket.tryAcquire(t, 10, perMs) == 0) allowed++;
+        }
+        assertThat(allowed).isEqualTo(90);
+    }
+
+    @Test
+    void timestampsAboveTheTokenBitsSurvivePacking() {
+        // 시각은 상위 40비트. 하위 24비트(토큰)를 넘는 값에서도 시각과 토큰이 섞이지 않아야 한다
+        long now = (1L << 39) + 12_345;
+        TokenBucket bucket = new TokenBucket(3, now);
+
+        assertThat(bucket.tryAcquire(now, 3, ONE_PER_SECOND)).isZero();
+        assertThat(bucket.tryAcquire(now, 3, ONE_PER_SECOND)).isZero();
+        assertThat(bucket.tryAcquire(now, 3, ONE_PER_SECOND)).isZero();
+        assertThat(bucket.tryAcquire(now, 3, ONE_PER_SECOND)).isEqualTo(1000);
+        assertThat(bucket.tryAcquire(now + 1000, 3, ONE_PER_SECOND)).isZero();
+    }
+
+    @Test
+    void maxCapacityFitsInTheTokenBits() {
+        long capacity = TokenBucket.MAX_CAPACITY;
+        TokenBucket bucket = new TokenBucket(capacity, 0);
+
+        int allowed = 0;
+        while (bucket.tryAcquire(0, capacity, ONE_PER_SECOND) == 0) allowed++;
+        assertThat(allowed).isEqualTo(capacity);
+    }
+
+    @Test
+    void concurrentCallersNeverTakeMoreThanCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 0);
+        AtomicInteger allowed = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int k = 0; k < 500; k++) {
+                    if (bucket.tryAcquire(0, 1000, ONE_PER_SECOND) == 0) allowed.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread t : threads) t.join();
+
+        assertThat(allowed).hasValue(1000);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.calendar.event;
+
+import com.example.calendar.support.IntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// GET /events 는 캘린더 수와 무관하게 같은 수의 문장으로 끝나야 한다 (캘린더/일정마다 도는 N+1 이 없는지)
+class EventListStatementsTest extends IntegrationTest {
+
+    private static final int CALENDARS = 8;
+
+    private final OffsetDateTime from = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS);
+    private final OffsetDateTime to = from.plusDays(14);
+
+    private TestUser owner;
+    private final List<Long> calendarIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = user("owner");
+        for (int c = 0; c < CALENDARS; c++) {
+            long calendarId = calendar(owner, "calendar " + c);
+            calendarIds.add(calendarId);
+            for (int d = 0; d < 5; d++) {
+                OffsetDateTime start = from.plusDays(d).plusHours(9 + c);
+                event(calendarId, owner, start, start.plusHours(1));
+            }
+            OffsetDateTime seriesStart = from.minusWeeks(1).plusHours(20);
+            weeklySeries(calendarId, owner, seriesStart, seriesStart.plusMinutes(30), 6);
+        }
+    }
+
+    private String ids(int count) {
+        return calendarIds.subList(0, count).stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private long listStatements(int calendars) throws Exception {
+        return statements("GET", "/events", () -> mvc.perform(get("/events")
+                        .header(HttpHeaders.AUTHORIZATION, owner.bearer())
+                        .param("calendarIds", ids(calendars))
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                // 단일 일정 5개 + 구간 안의 시리즈 회차 2개 (캘린더마다)
+                .andExpect(jsonPath("$.length()").value(7 * calendars)));
+    }
+
+    @Test
+    void listRunsTheSameStatementsForOneAndManyCalendars() throws Exception {
+        long one = listStatements(1);
+        long many = listStatements(CALENDARS);
+
+        // ETag(version) + 단일 일정 + 시리즈
+        assertThat(one).isEqualTo(3);
+        assertThat(many).isEqualTo(one);
+    }
+
+    @Test
+    void keysetPageRunsTheSameStatementsForOneAndManyCalendars() throws Exception {
+        long[] counts = new long[2];
+        int[] calendars = {1, CALENDARS};
+        for (int k = 0; k < calendars.length; k++) {
+            int n = calendars[k];
+            counts[k] = statements("GET", "/events", () -> mvc.perform(get("/events")
+                            .header(HttpHeaders.AUTHORIZATION, owner.bearer())
+                            .param("calendarIds", ids(n))
+                            .param("from", from.toString())
+                            .param("limit", "20"))
+                    .andExpect(status().isOk()));
+        }
+
+        assertThat(counts[0]).isEqualTo(3);
+        assertThat(counts[1]).isEqualTo(counts[0]);
+    }
+
+    @Test
+    void notModifiedListReadsOnlyTheVersionTag() throws Exception {
+        String etag = mvc.perform(get("/events")
+                        .header(HttpHeaders.AUTHORIZATION, owner.bearer())
+                        .param("calendarIds", ids(CALENDARS))
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        long count = statements("GET", "/events", () -> mvc.perform(get("/events")
+                        .header(HttpHeaders.AUTHORIZATION, owner.bearer())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+                        .param("calendarIds", ids(CALENDARS))
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isNotModified()));
+
+        assertThat(count).isEqualTo(1);
+    }
+}
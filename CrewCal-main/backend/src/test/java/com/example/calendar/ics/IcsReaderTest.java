@@ -0,0 +1,64 @@
+package com.example.calendar.ics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IcsReaderTest {
+
+    private static List<IcsReader.Component> read(String ics) throws IOException {
+        List<IcsReader.Component> out = new ArrayList<>();
+        IcsReader.readEvents(new StringReader(ics), out::add);
+        return out;
+    }
+
+    private static String event(String uid, String body) {
+        return "BEGIN:VEVENT\r\nUID:" + uid + "\r\n" + body + "END:VEVENT\r\n";
+    }
+
+    @Test
+    void unfoldsLinesAndCollectsAlarms() throws IOException {
+        var events = read("BEGIN:VCALENDAR\r\n"
+                + event("1", "SUMMARY:hel\r\n lo\r\nBEGIN:VALARM\r\nTRIGGER:-PT5M\r\nEND:VALARM\r\n")
+                + "END:VCALENDAR\r\n");
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).error()).isNull();
+        assertThat(events.get(0).value("SUMMARY")).isEqualTo("hello");
+        assertThat(events.get(0).children()).extracting(IcsReader.Component::name).containsExactly("VALARM");
+    }
+
+    @Test
+    void overlongLineFailsOnlyThatEvent() throws IOException {
+        String longLine = "DESCRIPTION:" + "x".repeat(IcsReader.MAX_LINE_LENGTH) + "\r\n";
+        var events = read(event("1", longLine) + event("2", "SUMMARY:fine\r\n"));
+
+        assertThat(events).extracting(IcsReader.Component::error)
+                .containsExactly("Line longer than " + IcsReader.MAX_LINE_LENGTH + " characters", null);
+        assertThat(events.get(1).value("SUMMARY")).isEqualTo("fine");
+    }
+
+    @Test
+    void overlongUnfoldedLineFailsTheEvent() throws IOException {
+        String half = "y".repeat(IcsReader.MAX_LINE_LENGTH / 2 + 1);
+        var events = read(event("1", "DESCRIPTION:" + half + "\r\n " + half + "\r\n"));
+
+        assertThat(events.get(0).error()).startsWith("Line longer than");
+    }
+
+    @Test
+    void tooManyPropertiesFailsTheEvent() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i <= IcsReader.MAX_PROPERTIES; i++) body.append("X-PROP:").append(i).append("\r\n");
+        var events = read(event("1", body.toString()) + event("2", ""));
+
+        assertThat(events.get(0).error()).isEqualTo("More than " + IcsReader.MAX_PROPERTIES + " properties");
+        assertThat(events.get(0).value("UID")).isEqualTo("1");
+        assertThat(events.get(1).error()).isNull();
+    }
+}
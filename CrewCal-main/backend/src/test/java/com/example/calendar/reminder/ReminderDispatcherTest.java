@@ -0,0 +1,183 @@
+package com.example.calendar.reminder;
+
+import com.example.calendar.support.IntegrationTest;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 테스트 프로필은 app.reminders.enabled=false 라 dispatcher 를 직접 만들고 poll/fire 를 손으로 부른다
+class ReminderDispatcherTest extends IntegrationTest {
+
+    private static final int MINUTES = 10;
+
+    @Autowired private ReminderDispatchRepository repository;
+    @Autowired private TransactionTemplate tx;
+
+    private final List<DueReminder> delivered = new CopyOnWriteArrayList<>();
+    private ReminderDispatcher dispatcher;
+
+    // 다음 회차. 시리즈는 한 주 전에 시작했으므로 이 회차가 알림이 기다리는 회차가 된다
+    private final OffsetDateTime next = OffsetDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).plusDays(1);
+
+    private TestUser owner;
+    private long seriesId;
+    private long reminderId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReminderSink sink = new ReminderSink() {
+            @Override public String method() { return "IN_APP"; }
+            // 같은 DB 를 쓰는 다른 테스트의 알림이 wheel 에서 울려도 섞이지 않게 이 시리즈 것만 모은다
+            @Override public void deliver(List<DueReminder> reminders) {
+                reminders.stream().filter(r -> r.eventId() == seriesId).forEach(delivered::add);
+            }
+        };
+        // horizon 을 넉넉히 잡아 내일 울릴 알림도 poll 에서 claim 되게 한다
+        dispatcher = new ReminderDispatcher(repository, tx, List.of(sink), 3 * 86_400, 600, 1000);
+
+        owner = user("owner");
+        long calendarId = calendar(owner, "team");
+        OffsetDateTime start = next.minusWeeks(1);
+        String body = mvc.perform(post("/events")
+                        .header(HttpHeaders.AUTHORIZATION, owner.bearer())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"calendarId": %d, "title": "standup", "startAt": "%s", "endAt": "%s",
+                                 "rrule": "FREQ=WEEKLY;COUNT=10", "reminderMinutesBefore": %d}
+                                """.formatted(calendarId, start, start.plusMinutes(15), MINUTES)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        seriesId = ((Number) JsonPath.read(body, "$.id")).longValue();
+        reminderId = jdbc.queryForObject("select id from event_reminders where event_id = ?", Long.class, seriesId);
+        assertThat(occurrenceAt()).isEqualTo(next.toInstant());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+    }
+
+    private Instant occurrenceAt() {
+        return jdbc.queryForObject("select occurrence_at from event_reminders where id = ?", OffsetDateTime.class, reminderId)
+                .toInstant();
+    }
+
+    private Instant fireAt() {
+        return jdbc.queryForObject("select fire_at from event_reminders where id = ?", OffsetDateTime.class, reminderId)
+                .toInstant();
+    }
+
+    private void fireAt(OffsetDateTime at) {
+        dispatcher.poll();
+        dispatcher.fire(List.of(new ReminderTimingWheel.Due(reminderId, at.toInstant().toEpochMilli())));
+    }
+
+    private void patchOccurrence(String json) throws Exception {
+        mvc.perform(patch("/events/" + seriesId + "/occurrences")
+                        .header(HttpHeaders.AUTHORIZATION, owner.bearer())
+                        .param("at", next.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void movedOccurrenceRemindsAtItsOwnStart() throws Exception {
+        OffsetDateTime moved = next.plusHours(3);
+        patchOccurrence("""
+                {"title": "moved", "startAt": "%s", "endAt": "%s"}
+                """.formatted(moved, moved.plusMinutes(15)));
+
+        assertThat(occurrenceAt()).isEqualTo(next.toInstant());
+        assertThat(fireAt()).isEqualTo(moved.minusMinutes(MINUTES).toInstant());
+
+        // 원래 시각으로 울리려던 항목은 아무 행도 잡지 못한다
+        fireAt(next.minusMinutes(MINUTES));
+        assertThat(delivered).isEmpty();
+
+        fireAt(moved.minusMinutes(MINUTES));
+        assertThat(delivered).hasSize(1);
+        assertThat(delivered.get(0).title()).isEqualTo("moved");
+        assertThat(delivered.get(0).startAt().toInstant()).isEqualTo(moved.toInstant());
+
+        // 다음 회차는 원래 회차 기준으로 찾는다
+        assertThat(occurrenceAt()).isEqualTo(next.plusWeeks(1).toInstant());
+        assertThat(fireAt()).isEqualTo(next.plusWeeks(1).minusMinutes(MINUTES).toInstant());
+    }
+
+    @Test
+    void retitledOccurrenceStillReminds() throws Exception {
+        patchOccurrence("""
+                {"title": "retitled"}
+                """);
+        assertThat(fireAt()).isEqualTo(next.minusMinutes(MINUTES).toInstant());
+
+        fireAt(next.minusMinutes(MINUTES));
+        assertThat(delivered).extracting(DueReminder::title).containsExactly("retitled");
+        assertThat(delivered.get(0).startAt().toInstant()).isEqualTo(next.toInstant());
+        assertThat(occurrenceAt()).isEqualTo(next.plusWeeks(1).toInstant());
+    }
+
+    @Test
+    void cancelledOccurrenceIsSkippedAndTheSeriesMovesOn() throws Exception {
+        mvc.perform(delete("/events/" + seriesId + "/occurrences")
+                        .header(HttpHeaders.AUTHORIZATION, owner.bearer())
+                        .param("at", next.toString()))
+                .andExpect(status().is2xxSuccessful());
+
+        fireAt(next.minusMinutes(MINUTES));
+        assertThat(delivered).isEmpty();
+        assertThat(occurrenceAt()).isEqualTo(next.plusWeeks(1).toInstant());
+    }
+
+    @Test
+    void staleSeriesReminderCatchesUpToTheNextOccurrence() {
+        // 배포/다운타임으로 지난주 회차의 창(max-lateness)을 놓친 상태
+        OffsetDateTime missed = next.minusWeeks(1);
+        jdbc.update("update event_reminders set occurrence_at = ?, fire_at = ? where id = ?",
+                missed, missed.minusMinutes(MINUTES), reminderId);
+
+        dispatcher.sweepStale();
+
+        assertThat(occurrenceAt()).isEqualTo(next.toInstant());
+        assertThat(fireAt()).isEqualTo(next.minusMinutes(MINUTES).toInstant());
+
+        // 옮긴 뒤에는 평소처럼 claim 되고 울린다
+        fireAt(next.minusMinutes(MINUTES));
+        assertThat(delivered).extracting(DueReminder::title).containsExactly("standup");
+    }
+
+    @Test
+    void staleSingleEventReminderIsLeftAlone() {
+        long calendarId = calendar(owner, "single");
+        OffsetDateTime start = next.minusDays(2);
+        long eventId = event(calendarId, owner, start, start.plusHours(1));
+        Long id = jdbc.queryForObject(
+                "insert into event_reminders (event_id, minutes_before, fire_at) values (?, ?, ?) returning id",
+                Long.class, eventId, MINUTES, start.minusMinutes(MINUTES));
+
+        dispatcher.sweepStale();
+
+        OffsetDateTime fireAt = jdbc.queryForObject("select fire_at from event_reminders where id = ? and fired_at is null",
+                OffsetDateTime.class, id);
+        assertThat(fireAt.toInstant()).isEqualTo(start.minusMinutes(MINUTES).toInstant());
+    }
+}
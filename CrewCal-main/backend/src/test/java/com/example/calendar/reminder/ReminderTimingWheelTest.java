@@ -0,0 +1,102 @@
+package com.example.calendar.reminder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReminderTimingWheelTest {
+
+    private final AtomicLong clock = new AtomicLong(0);
+    private final List<long[]> fired = new ArrayList<>();
+    // 16 슬롯, 1초 tick (한 바퀴 16초)
+    private final ReminderTimingWheel wheel = new ReminderTimingWheel(1000, 16,
+            due -> due.forEach(d -> fired.add(new long[]{d.id(), d.deadlineMillis(), clock.get()})), clock::get, false);
+
+    private void runUntil(long millis) {
+        while (clock.get() < millis) {
+            clock.addAndGet(1000);
+            wheel.advance();
+        }
+    }
+
+    @Test
+    void midTickDeadlineFiresInTheNextTickNotAFullRotationLater() {
+        wheel.schedule(1, 2_700);
+
+        runUntil(2_000);
+        assertThat(fired).isEmpty();
+
+        runUntil(3_000);
+        assertThat(fired).hasSize(1);
+        assertThat(fired.get(0)).containsExactly(1, 2_700, 3_000);
+        assertThat(wheel.pendingCount()).isZero();
+    }
+
+    @Test
+    void deadlineOnTickBoundaryFiresOnThatTick() {
+        wheel.schedule(1, 5_000);
+        runUntil(4_000);
+        assertThat(fired).isEmpty();
+        runUntil(5_000);
+        assertThat(fired.get(0)).containsExactly(1, 5_000, 5_000);
+    }
+
+    @Test
+    void deadlineMoreThanOneRotationAwayWaitsForItsRound() {
+        wheel.schedule(1, 20_500);
+
+        // 슬롯 4 를 한 번 지나가도(4초) 울리지 않는다
+        runUntil(20_000);
+        assertThat(fired).isEmpty();
+
+        runUntil(21_000);
+        assertThat(fired.get(0)).containsExactly(1, 20_500, 21_000);
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextAdvance() {
+        runUntil(10_000);
+        wheel.schedule(1, 3_000);
+        runUntil(11_000);
+        assertThat(fired.get(0)).containsExactly(1, 3_000, 11_000);
+    }
+
+    @Test
+    void duplicateScheduleIsIgnoredUntilFired() {
+        assertThat(wheel.schedule(1, 1_500)).isTrue();
+        assertThat(wheel.schedule(1, 1_500)).isFalse();
+        runUntil(2_000);
+        assertThat(fired).hasSize(1);
+        assertThat(wheel.schedule(1, 9_000)).isTrue();
+    }
+
+    @Test
+    void rescheduledDeadlineReplacesTheEarlierEntry() {
+        assertThat(wheel.schedule(1, 3_000)).isTrue();
+        // claim 이 풀리고 같은 인스턴스가 옮겨진 시각으로 다시 가져간 경우
+        assertThat(wheel.schedule(1, 7_000)).isTrue();
+        assertThat(wheel.pendingCount()).isEqualTo(1);
+
+        runUntil(6_000);
+        assertThat(fired).isEmpty();
+
+        runUntil(7_000);
+        assertThat(fired).hasSize(1);
+        assertThat(fired.get(0)).containsExactly(1, 7_000, 7_000);
+        assertThat(wheel.pendingCount()).isZero();
+    }
+
+    @Test
+    void movingBackToAnEarlierDeadlineFiresOnceAtTheEarlierTime() {
+        wheel.schedule(1, 8_000);
+        wheel.schedule(1, 2_000);
+
+        runUntil(10_000);
+        assertThat(fired).hasSize(1);
+        assertThat(fired.get(0)).containsExactly(1, 2_000, 2_000);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.calendar.support;
+
+import com.example.calendar.common.security.JwtService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+// MockMvc + 실제 PostgreSQL. 준비 데이터는 JdbcTemplate 로 바로 넣어서 측정하는 요청의 문장 수에 섞이지 않게 한다
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(PostgresTestConfig.class)
+public abstract class IntegrationTest {
+
+    @Autowired protected MockMvc mvc;
+    @Autowired protected JdbcTemplate jdbc;
+    @Autowired protected JwtService jwtService;
+    @Autowired protected MeterRegistry registry;
+
+    protected record TestUser(long id, String email, String token) {
+        public String bearer() { return "Bearer " + token; }
+    }
+
+    protected TestUser user(String name) {
+        String email = name + "-" + UUID.randomUUID() + "@example.com";
+        Long id = jdbc.queryForObject(
+                "insert into users (email, display_name) values (?, ?) returning id", Long.class, email, name);
+        return new TestUser(id, email, jwtService.issue(id, email));
+    }
+
+    protected long calendar(TestUser owner, String name) {
+        Long id = jdbc.queryForObject(
+                "insert into calendars (name, created_by) values (?, ?) returning id", Long.class, name, owner.id());
+        member(id, owner, "OWNER");
+        return id;
+    }
+
+    protected void member(long calendarId, TestUser user, String role) {
+        jdbc.update("insert into calendar_members (calendar_id, user_id, role) values (?, ?, ?)", calendarId, user.id(), role);
+    }
+
+    protected long event(long calendarId, TestUser by, OffsetDateTime start, OffsetDateTime end) {
+        return jdbc.queryForObject(
+                "insert into events (calendar_id, title, start_at, end_at, created_by, updated_by) " +
+                "values (?, 'event', ?, ?, ?, ?) returning id",
+                Long.class, calendarId, start, end, by.id(), by.id());
+    }
+
+    // count 번 반복하는 주간 시리즈 (recur_until 은 EventService 처럼 마지막 회차의 시작)
+    protected long weeklySeries(long calendarId, TestUser by, OffsetDateTime start, OffsetDateTime end, int count) {
+        return jdbc.queryForObject(
+                "insert into events (calendar_id, title, start_at, end_at, rrule, recur_until, created_by, updated_by) " +
+                "values (?, 'series', ?, ?, ?, ?, ?, ?) returning id",
+                Long.class, calendarId, start, end, "FREQ=WEEKLY;COUNT=" + count, start.plusWeeks(count - 1L), by.id(), by.id());
+    }
+
+    @FunctionalInterface
+    protected interface Request {
+        void perform() throws Exception;
+    }
+
+    // 요청 하나가 실행한 JDBC 문장 수. QueryMetricsFilter 가 route 템플릿별로 남기는 db.request.statements 의 증가분이다
+    protected long statements(String method, String uri, Request request) throws Exception {
+        double before = recorded(method, uri);
+        request.perform();
+        return Math.round(recorded(method, uri) - before);
+    }
+
+    private double recorded(String method, String uri) {
+        DistributionSummary summary = registry.find("db.request.statements").tags("method", method, "uri", uri).summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.calendar.support;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+// 운영과 같은 PostgreSQL 16 (파티션, btree_gist, xid8 를 쓰므로 H2 로는 대신할 수 없다).
+// 컨텍스트 캐시 덕분에 같은 설정의 테스트 클래스들은 컨테이너 하나를 같이 쓴다
+@TestConfiguration(proxyBeanMethods = false)
+public class PostgresTestConfig {
+
+    @Bean
+    @ServiceConnection
+    PostgreSQLContainer<?> postgres() {
+        return new PostgreSQLContainer<>(DockerImageName.parse("postgres:16-alpine"));
+    }
+}